@@ -1,13 +1,10 @@
 package examples.core;
 
 import io.vertx.await.Async;
-import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.executeblocking.ExecuteBlocking;
 
-import static io.vertx.await.Async.await;
-
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CyclicBarrier;
@@ -24,7 +21,7 @@ public class ExecuteBlockingExample {
 
     async.run(v -> {
       CyclicBarrier barrier = new CyclicBarrier(num);
-      List<Future> futures = new ArrayList<>(num);
+      List<Future<String>> futures = new ArrayList<>(num);
       for (int i = 0;i < num;i++) {
         Future<String> fut = ExecuteBlocking.executeBlocking(() -> {
           barrier.await();
@@ -32,7 +29,7 @@ public class ExecuteBlockingExample {
         });
         futures.add(fut);
       }
-      CompositeFuture res = await(CompositeFuture.join(futures));
+      List<String> res = Async.awaitAll(futures);
       System.out.println("Got result");
     });
 
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2019 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.benchmarks;
+
+import io.vertx.await.Async;
+import io.vertx.await.AsyncOptions;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the per-call cost of {@link Async#run} with a scheduler and context created per call or shared
+ * per event-loop, for each kind of scheduler.
+ */
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, timeUnit = TimeUnit.MILLISECONDS, time = 200)
+@Threads(1)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgs = {
+  "--enable-preview",
+  "--add-opens=java.base/java.lang=ALL-UNNAMED",
+  "--add-opens=java.base/jdk.internal.vm=ALL-UNNAMED"
+})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class AsyncRunBenchmark {
+
+  @Param({"false", "true"})
+  private boolean sharedScheduler;
+
+  @Param({"default", "event-loop", "continuation", "lazy"})
+  private String scheduler;
+
+  @Param({"1", "100"})
+  private int tasks;
+
+  private Vertx vertx;
+  private Context context;
+  private Async async;
+
+  @Setup
+  public void setup() {
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+    async = new Async(vertx, new AsyncOptions()
+      .setUseVirtualEventLoopThreads(scheduler.equals("event-loop"))
+      .setUseContinuations(scheduler.equals("continuation"))
+      .setLazyPromotion(scheduler.equals("lazy"))
+      .setSharedScheduler(sharedScheduler));
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get();
+  }
+
+  @Benchmark
+  public void run() throws Exception {
+    int num = tasks;
+    CountDownLatch latch = new CountDownLatch(num);
+    context.runOnContext(v1 -> {
+      for (int i = 0;i < num;i++) {
+        async.run(v2 -> latch.countDown());
+      }
+    });
+    latch.await();
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2019 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.benchmarks;
+
+import io.vertx.await.Async;
+import io.vertx.await.AsyncOptions;
+import io.vertx.core.Context;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the cost of awaiting a Vert.x future completed by another context, natively or converted to
+ * a {@code CompletionStage}.
+ *
+ * Run with an allocation profiler (e.g. {@code -prof gc}) to compare the allocation rate per await.
+ */
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, timeUnit = TimeUnit.MILLISECONDS, time = 200)
+@Threads(1)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgs = {
+  "--enable-preview",
+  "--add-opens=java.base/java.lang=ALL-UNNAMED",
+  "--add-opens=java.base/jdk.internal.vm=ALL-UNNAMED"
+})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class AwaitBenchmark {
+
+  @Param({"default", "event-loop", "continuation", "lazy"})
+  private String scheduler;
+
+  @Param({"100"})
+  private int awaits;
+
+  private Vertx vertx;
+  private Context context;
+  private Async async;
+
+  @Setup
+  public void setup() {
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+    async = new Async(vertx, new AsyncOptions()
+      .setUseVirtualEventLoopThreads(scheduler.equals("event-loop"))
+      .setUseContinuations(scheduler.equals("continuation"))
+      .setLazyPromotion(scheduler.equals("lazy"))
+      .setSharedScheduler(true));
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get();
+  }
+
+  private void run(boolean completionStage) throws Exception {
+    int num = awaits;
+    CountDownLatch latch = new CountDownLatch(1);
+    context.runOnContext(v1 -> {
+      async.run(v2 -> {
+        for (int i = 0;i < num;i++) {
+          Promise<Void> promise = Promise.promise();
+          context.runOnContext(promise::complete);
+          if (completionStage) {
+            Async.await(promise.future().toCompletionStage());
+          } else {
+            Async.await(promise.future());
+          }
+        }
+        latch.countDown();
+      });
+    });
+    latch.await();
+  }
+
+  @Benchmark
+  public void awaitFuture() throws Exception {
+    run(false);
+  }
+
+  // baseline
+  @Benchmark
+  public void awaitCompletionStage() throws Exception {
+    run(true);
+  }
+}
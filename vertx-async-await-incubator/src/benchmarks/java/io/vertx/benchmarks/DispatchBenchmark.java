@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2011-2019 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.benchmarks;
+
+import io.vertx.await.Async;
+import io.vertx.await.AsyncOptions;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the throughput of the tasks dispatched on a virtual thread context, each task is bracketed by the
+ * bookkeeping answering {@code ContextInternal#inThread()}.
+ */
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, timeUnit = TimeUnit.MILLISECONDS, time = 200)
+@Threads(1)
+@BenchmarkMode(Mode.Throughput)
+@Fork(value = 1, jvmArgs = {
+  "--enable-preview",
+  "--add-opens=java.base/java.lang=ALL-UNNAMED",
+  "--add-opens=java.base/jdk.internal.vm=ALL-UNNAMED"
+})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class DispatchBenchmark {
+
+  @Param({"false", "true"})
+  private boolean useVirtualEventLoopThreads;
+
+  private static final int TASKS = 1000;
+
+  private Vertx vertx;
+  private Context context;
+
+  @Setup
+  public void setup() throws Exception {
+    vertx = Vertx.vertx();
+    Async async = new Async(vertx, new AsyncOptions().setUseVirtualEventLoopThreads(useVirtualEventLoopThreads));
+    CompletableFuture<Context> fut = new CompletableFuture<>();
+    vertx.runOnContext(v1 -> async.run(v2 -> fut.complete(Vertx.currentContext())));
+    context = fut.get();
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TASKS)
+  public void dispatch() throws Exception {
+    CountDownLatch latch = new CountDownLatch(TASKS);
+    for (int i = 0;i < TASKS;i++) {
+      context.runOnContext(v -> latch.countDown());
+    }
+    latch.await();
+  }
+}
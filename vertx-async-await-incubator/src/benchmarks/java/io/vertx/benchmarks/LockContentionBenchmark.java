@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2011-2019 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+
+package io.vertx.benchmarks;
+
+import io.vertx.await.Async;
+import io.vertx.await.AsyncLock;
+import io.vertx.await.AsyncOptions;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Measure a contended lock shared by virtual threads, {@link AsyncLock} resumes waiters through scheduler
+ * continuations while {@link Async#lock} blocks the virtual thread on a {@link ReentrantLock}.
+ */
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, timeUnit = TimeUnit.MILLISECONDS, time = 200)
+@Threads(1)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgs = {
+  "--enable-preview",
+  "--add-opens=java.base/java.lang=ALL-UNNAMED",
+  "--add-opens=java.base/jdk.internal.vm=ALL-UNNAMED"
+})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class LockContentionBenchmark {
+
+  @Param({"async", "jdk"})
+  private String lock;
+
+  @Param({"false", "true"})
+  private boolean useVirtualEventLoopThreads;
+
+  @Param({"8"})
+  private int tasks;
+
+  @Param({"100"})
+  private int iterations;
+
+  private Vertx vertx;
+  private Context context;
+  private Async async;
+  private AsyncLock asyncLock;
+  private ReentrantLock jdkLock;
+  private long counter;
+
+  @Setup
+  public void setup() {
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+    async = new Async(vertx, new AsyncOptions().setUseVirtualEventLoopThreads(useVirtualEventLoopThreads));
+    asyncLock = new AsyncLock();
+    jdkLock = new ReentrantLock();
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get();
+  }
+
+  @Benchmark
+  public long contended() throws Exception {
+    int num = tasks;
+    int iter = iterations;
+    boolean useAsyncLock = lock.equals("async");
+    CountDownLatch latch = new CountDownLatch(num);
+    context.runOnContext(v1 -> {
+      for (int i = 0;i < num;i++) {
+        async.run(v2 -> {
+          for (int j = 0;j < iter;j++) {
+            if (useAsyncLock) {
+              asyncLock.lock();
+              try {
+                counter++;
+              } finally {
+                asyncLock.unlock();
+              }
+            } else {
+              Async.lock(jdkLock);
+              try {
+                counter++;
+              } finally {
+                jdkLock.unlock();
+              }
+            }
+          }
+          latch.countDown();
+        });
+      }
+    });
+    latch.await();
+    return counter;
+  }
+}
@@ -1,51 +1,295 @@
 package io.vertx.await;
 
 import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.EventExecutor;
+import io.vertx.await.impl.BufferWriter;
+import io.vertx.await.impl.CarrierPool;
+import io.vertx.await.impl.ContinuationScheduler;
+import io.vertx.await.impl.EventLoopLoad;
+import io.vertx.await.impl.EventLoopRunQueue;
 import io.vertx.await.impl.EventLoopScheduler;
+import io.vertx.await.impl.HogWatchdog;
+import io.vertx.await.impl.PinningDetector;
+import io.vertx.await.impl.ReadStreamIterator;
 import io.vertx.await.impl.Scheduler;
+import io.vertx.await.impl.SchedulerMetrics;
 import io.vertx.await.impl.VirtualThreadContext;
+import io.vertx.await.impl.WorkStealingGroup;
+import io.vertx.await.impl.WriteStreamWriter;
 import io.vertx.await.impl.DefaultScheduler;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.spi.metrics.VertxMetrics;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Async {
 
+  /**
+   * The pool type of the Vert.x pool metrics reported by the virtual thread contexts.
+   */
+  public static final String METRICS_POOL_TYPE = "virtual-thread";
+
+  /**
+   * The default number of items buffered by a stream iterator before the stream is paused.
+   */
+  public static final int DEFAULT_PREFETCH = 16;
+
   private final Vertx vertx;
-  private final boolean useVirtualEventLoopThreads;
+  private final AsyncOptions options;
+  private final ConcurrentMap<EventLoop, Scheduler> schedulers;
+  private final ConcurrentMap<EventLoop, VirtualThreadContext> keyedContexts;
+  private final ConcurrentMap<EventLoop, EventLoopRunQueue> runQueues;
+  private final WorkStealingGroup workStealingGroup;
+  private final SchedulerMetrics metrics;
+  private final PinningDetector pinningDetector;
+  private final HogWatchdog hogWatchdog;
+  private final CarrierPool carrierPool;
+  private final EventLoop[] eventLoops;
+  private final ConcurrentMap<EventLoop, EventLoopLoad> loads;
+  private final AtomicInteger cursor = new AtomicInteger();
 
   public Async(Vertx vertx) {
-    this(vertx, false);
+    this(vertx, new AsyncOptions());
   }
 
   public Async(Vertx vertx, boolean useVirtualEventLoopThreads) {
+    this(vertx, new AsyncOptions().setUseVirtualEventLoopThreads(useVirtualEventLoopThreads));
+  }
+
+  public Async(Vertx vertx, AsyncOptions options) {
     this.vertx = vertx;
-    this.useVirtualEventLoopThreads = useVirtualEventLoopThreads;
+    this.options = new AsyncOptions(options);
+    this.schedulers = options.isSharedScheduler() ? new ConcurrentHashMap<>() : null;
+    this.keyedContexts = new ConcurrentHashMap<>();
+    this.runQueues = options.isUseVirtualEventLoopThreads() || options.isUseContinuations() || options.isLazyPromotion() ? new ConcurrentHashMap<>() : null;
+    this.workStealingGroup = options.isUseVirtualEventLoopThreads() && options.isWorkStealing() ? new WorkStealingGroup() : null;
+    List<EventLoop> eventLoops = new ArrayList<>();
+    this.loads = new ConcurrentHashMap<>();
+    for (EventExecutor executor : ((VertxInternal) vertx).getEventLoopGroup()) {
+      EventLoop eventLoop = (EventLoop) executor;
+      eventLoops.add(eventLoop);
+      loads.put(eventLoop, new EventLoopLoad());
+    }
+    this.eventLoops = eventLoops.toArray(new EventLoop[0]);
+    if (options.isMetricsEnabled()) {
+      VertxMetrics vertxMetrics = ((VertxInternal) vertx).metricsSPI();
+      this.metrics = new SchedulerMetrics(vertxMetrics != null ? vertxMetrics.createPoolMetrics(METRICS_POOL_TYPE, options.getMetricsName(), -1) : null);
+      ((VertxInternal) vertx).addCloseHook(metrics);
+    } else {
+      this.metrics = null;
+    }
+    if (options.getCarrierPoolSize() > 0) {
+      this.carrierPool = CarrierPool.get(vertx, options.getCarrierPoolSize());
+    } else {
+      this.carrierPool = null;
+    }
+    if (options.getPinnedAwaitThreshold() > 0 && PinningDetector.isAvailable()) {
+      this.pinningDetector = new PinningDetector(options.getPinnedAwaitThresholdUnit().toNanos(options.getPinnedAwaitThreshold()),
+        options.isMigrateOnPinnedAwait() ? this::createDefaultScheduler : null);
+    } else {
+      this.pinningDetector = null;
+    }
+    if (options.isUseVirtualEventLoopThreads() && options.getMaxContinuationTime() > 0 && HogWatchdog.isAvailable()) {
+      int migrateAfterOverruns = options.getMigrateAfterOverruns();
+      this.hogWatchdog = new HogWatchdog(options.getMaxContinuationTimeUnit().toNanos(options.getMaxContinuationTime()),
+        Math.max(migrateAfterOverruns, 1),
+        migrateAfterOverruns > 0 ? this::createDefaultScheduler : null);
+      ((VertxInternal) vertx).addCloseHook(hogWatchdog);
+    } else {
+      this.hogWatchdog = null;
+    }
   }
 
   /**
-   * Run a task on a virtual thread
+   * Run a task on a virtual thread.
+   *
+   * When called from an event-loop or a virtual thread context, the task runs on the same event-loop, otherwise on the
+   * least loaded event-loop and the task is counted in its {@link #load(EventLoop) load}.
    */
   public void run(Handler<Void> task) {
-    Context ctx = vertx.getOrCreateContext();
-    EventLoop eventLoop;
-    if (ctx.isEventLoopContext()) {
-      eventLoop = ((ContextInternal)ctx).nettyEventLoop();
+    Context ctx = Vertx.currentContext();
+    if (ctx != null && (ctx.isEventLoopContext() || ctx instanceof VirtualThreadContext)) {
+      createContext(((ContextInternal)ctx).nettyEventLoop()).start(task);
+    } else {
+      // Only the tasks placed by load are counted, the other tasks keep the uncounted fast path
+      EventLoop eventLoop = leastLoadedEventLoop();
+      createContext(eventLoop, loads.get(eventLoop)).start(task);
+    }
+  }
+
+  /**
+   * Run a task on a virtual thread of the context bound to {@code key}.
+   *
+   * The keys are hashed to the event-loops and each event-loop has a single keyed context: the tasks of all the keys
+   * mapped to an event-loop, not only of equal keys, run on duplicates of this context. They are serialized and can
+   * share state without synchronization, e.g. an {@link AsyncCache}, but a slow key delays the other keys of its
+   * event-loop. Each task has its own deadline and local data.
+   *
+   * @param key the affinity key, e.g. a tenant, a user or a shard
+   * @param task the task
+   * @throws IllegalArgumentException when {@code key} is {@code null}
+   */
+  public void run(Object key, Handler<Void> task) {
+    // A duplicate per task so the deadline and the local data of a task do not leak to the next tasks
+    keyedContext(eventLoop(key)).duplicate().runOnContext(task);
+  }
+
+  /**
+   * @return the event-loop the tasks of {@code key} run on
+   * @throws IllegalArgumentException when {@code key} is {@code null}
+   */
+  public EventLoop eventLoop(Object key) {
+    if (key == null) {
+      throw new IllegalArgumentException("Key must not be null");
+    }
+    int h = key.hashCode();
+    return eventLoops[Math.floorMod(h ^ (h >>> 16), eventLoops.length)];
+  }
+
+  private VirtualThreadContext keyedContext(EventLoop eventLoop) {
+    VirtualThreadContext context = keyedContexts.get(eventLoop);
+    if (context == null) {
+      context = keyedContexts.computeIfAbsent(eventLoop, this::createContext);
+    }
+    return context;
+  }
+
+  /**
+   * @return the load of {@code eventLoop}: the tasks {@link #run(Handler) run} from non Vert.x threads on this
+   *         event-loop, including the tasks they spawn on their context
+   */
+  public AsyncLoad load(EventLoop eventLoop) {
+    return loads.get(eventLoop);
+  }
+
+  private EventLoop leastLoadedEventLoop() {
+    // Start the scan at a moving position so equally loaded event-loops are picked in turn
+    int start = Math.floorMod(cursor.getAndIncrement(), eventLoops.length);
+    EventLoop best = null;
+    long bestLoad = Long.MAX_VALUE;
+    for (int i = 0;i < eventLoops.length;i++) {
+      EventLoop eventLoop = eventLoops[(start + i) % eventLoops.length];
+      long load = loads.get(eventLoop).load();
+      if (load < bestLoad) {
+        best = eventLoop;
+        bestLoad = load;
+      }
+    }
+    return best;
+  }
+
+  private VirtualThreadContext createContext(EventLoop eventLoop) {
+    return createContext(eventLoop, null);
+  }
+
+  private VirtualThreadContext createContext(EventLoop eventLoop, EventLoopLoad load) {
+    Scheduler scheduler;
+    if (schedulers != null) {
+      scheduler = schedulers.get(eventLoop);
+      if (scheduler == null) {
+        scheduler = schedulers.computeIfAbsent(eventLoop, this::createScheduler);
+      }
     } else {
-      throw new IllegalStateException();
+      scheduler = createScheduler(eventLoop);
+    }
+    VirtualThreadContext context = VirtualThreadContext.create(vertx, eventLoop, scheduler, metrics, pinningDetector, hogWatchdog, load);
+    if (options.getYieldInterval() > 0) {
+      context.yieldInterval(options.getYieldIntervalUnit().toNanos(options.getYieldInterval()));
     }
+    return context;
+  }
+
+  private Scheduler createScheduler(EventLoop eventLoop) {
     // Scheduler scheduler = useVirtualEventLoopThreads ? new SchedulerImpl(LoomaniaScheduler2.threadFactory(eventLoop)): new SchedulerImpl(SchedulerImpl.DEFAULT_THREAD_FACTORY);
-    Scheduler scheduler = useVirtualEventLoopThreads ? new EventLoopScheduler(eventLoop) : new DefaultScheduler(DefaultScheduler.DEFAULT_THREAD_FACTORY);
-    VirtualThreadContext context = VirtualThreadContext.create(vertx, eventLoop, scheduler);
-    context.runOnContext(task);
+    Scheduler scheduler;
+    if (options.isUseContinuations() || options.isLazyPromotion()) {
+      scheduler = new ContinuationScheduler(runQueues.computeIfAbsent(eventLoop, this::createRunQueue), options.isLazyPromotion());
+    } else if (options.isUseVirtualEventLoopThreads()) {
+      EventLoopRunQueue runQueue = runQueues.computeIfAbsent(eventLoop, this::createRunQueue);
+      scheduler = new EventLoopScheduler(runQueue, workStealingGroup != null, metrics);
+    } else {
+      scheduler = createDefaultScheduler();
+    }
+    return scheduler;
+  }
+
+  private EventLoopRunQueue createRunQueue(EventLoop eventLoop) {
+    EventLoopRunQueue runQueue = EventLoopRunQueue.create(eventLoop,
+      options.getMaxDrainTasks(),
+      options.getMaxDrainTimeUnit().toNanos(options.getMaxDrainTime()),
+      options.getResumePolicy(),
+      options.getResumeWeight(),
+      workStealingGroup);
+    if (hogWatchdog != null) {
+      hogWatchdog.watch(runQueue);
+    }
+    return runQueue;
+  }
+
+  private Scheduler createDefaultScheduler() {
+    ThreadFactory threadFactory = carrierPool != null ? carrierPool.threadFactory() : DefaultScheduler.DEFAULT_THREAD_FACTORY;
+    return new DefaultScheduler(metrics != null ? metrics.threadFactory(threadFactory) : threadFactory,
+      DefaultScheduler.DEFAULT_MAX_IDLE_THREADS,
+      DefaultScheduler.DEFAULT_KEEP_ALIVE_NANOS,
+      options.getMaxDrainTasks(),
+      options.getMaxDrainTimeUnit().toNanos(options.getMaxDrainTime()),
+      options.getResumePolicy(),
+      options.getResumeWeight());
   }
 
-  private static VirtualThreadContext virtualThreadContext() {
+  /**
+   * @return the number of continuations that overran the event-loop time budget, {@code 0} when the watchdog is not enabled
+   */
+  public long overruns() {
+    return hogWatchdog != null ? hogWatchdog.overruns() : 0L;
+  }
+
+  /**
+   * @return the number of pinned awaits detected, {@code 0} when detection is not enabled
+   */
+  public long pinnedAwaits() {
+    return pinningDetector != null ? pinningDetector.pinnedAwaits() : 0L;
+  }
+
+  /**
+   * @return the metrics of this instance or {@code null} when metrics are not enabled
+   */
+  public AsyncMetrics metrics() {
+    return metrics;
+  }
+
+  /**
+   * @return the number of tasks stolen between event-loops, {@code 0} when work stealing is not enabled
+   */
+  public long stealCount() {
+    return workStealingGroup != null ? workStealingGroup.stealCount() : 0L;
+  }
+
+  static VirtualThreadContext virtualThreadContext() {
     ContextInternal ctx = (ContextInternal) Vertx.currentContext();
     if (ctx != null) {
       ctx = ctx.unwrap();
@@ -57,9 +301,15 @@ public class Async {
   }
 
   public static <T> T await(Future<T> future) {
-    return await(future.toCompletionStage().toCompletableFuture());
+    VirtualThreadContext ctx = virtualThreadContext();
+    return ctx.await(future);
   }
 
+  /**
+   * Acquire {@code lock} from a virtual thread, the scheduler is released while the thread is blocked on the lock.
+   *
+   * @throws IllegalStateException when the current thread is not virtual, see {@link AsyncOptions#setUseContinuations}
+   */
   public static void lock(Lock lock) {
     VirtualThreadContext ctx = virtualThreadContext();
     ctx.lock(lock);
@@ -69,4 +319,300 @@ public class Async {
     VirtualThreadContext ctx = virtualThreadContext();
     return ctx.await(future);
   }
+
+  /**
+   * Await {@code future} at most {@code timeout}, when the timeout fires a {@link java.util.concurrent.TimeoutException}
+   * is thrown. Only the await is failed, use {@link #await(Promise, long, TimeUnit)} to also fail the operation.
+   */
+  public static <T> T await(Future<T> future, long timeout, TimeUnit unit) {
+    VirtualThreadContext ctx = virtualThreadContext();
+    return ctx.await(future, timeout, unit);
+  }
+
+  /**
+   * Await {@code future} at most {@code timeout}, when the timeout fires a {@link java.util.concurrent.TimeoutException}
+   * is thrown. Only the await is failed, use {@link #await(CompletableFuture, long, TimeUnit)} to also fail the
+   * operation.
+   */
+  public static <T> T await(CompletionStage<T> future, long timeout, TimeUnit unit) {
+    VirtualThreadContext ctx = virtualThreadContext();
+    return ctx.await(future, timeout, unit);
+  }
+
+  /**
+   * Await the future of {@code promise} owned by the caller, when the {@link #deadline} of the context expires
+   * {@code promise} is failed with the {@link java.util.concurrent.TimeoutException} thrown, so the pending operation
+   * can release its resources.
+   */
+  public static <T> T await(Promise<T> promise) {
+    VirtualThreadContext ctx = virtualThreadContext();
+    return ctx.await(promise);
+  }
+
+  /**
+   * Like {@link #await(Promise)}, {@code promise} is also failed when {@code timeout} fires.
+   */
+  public static <T> T await(Promise<T> promise, long timeout, TimeUnit unit) {
+    VirtualThreadContext ctx = virtualThreadContext();
+    return ctx.await(promise, timeout, unit);
+  }
+
+  /**
+   * Await {@code future} owned by the caller, when the {@link #deadline} of the context expires {@code future} is
+   * completed with the {@link java.util.concurrent.TimeoutException} thrown, like {@link CompletableFuture#orTimeout}.
+   * A future shared with other consumers can be awaited as a {@link CompletionStage} instead.
+   */
+  public static <T> T await(CompletableFuture<T> future) {
+    VirtualThreadContext ctx = virtualThreadContext();
+    return ctx.await(future);
+  }
+
+  /**
+   * Like {@link #await(CompletableFuture)}, {@code future} is also completed when {@code timeout} fires.
+   */
+  public static <T> T await(CompletableFuture<T> future, long timeout, TimeUnit unit) {
+    VirtualThreadContext ctx = virtualThreadContext();
+    return ctx.await(future, timeout, unit);
+  }
+
+  /**
+   * Await all the {@code futures} with a single park, the first failure is thrown and the pending futures are left
+   * untouched. When all the futures are already complete the thread does not park.
+   *
+   * @return the results in the order of {@code futures}
+   */
+  public static <T> List<T> awaitAll(List<? extends Future<T>> futures) {
+    return awaitAll(futures, null);
+  }
+
+  /**
+   * Like {@link #awaitAll(List)}, once the outcome is known or the {@link #deadline} of the context expires
+   * {@code cancel} is called with the index of each pending future, so the caller can cancel the operations it owns.
+   */
+  public static <T> List<T> awaitAll(List<? extends Future<T>> futures, IntConsumer cancel) {
+    VirtualThreadContext ctx = virtualThreadContext();
+    return ctx.await(futures, futures.size(), true, cancel);
+  }
+
+  /**
+   * Like {@link #awaitAll(List, IntConsumer)} with the promises of operations owned by the caller, the pending promises
+   * are failed with a {@link CancellationException}.
+   */
+  @SafeVarargs
+  public static <T> List<T> awaitAll(Promise<T>... promises) {
+    List<Promise<T>> owned = new ArrayList<>(promises.length);
+    for (Promise<T> promise : promises) {
+      owned.add(promise);
+    }
+    return awaitAll(futures(owned), cancel(owned));
+  }
+
+  /**
+   * Like {@link #awaitAll(List)}.
+   */
+  @SafeVarargs
+  public static <T> List<T> awaitAll(Future<T>... futures) {
+    // Copy the futures so the varargs array does not escape
+    List<Future<T>> list = new ArrayList<>(futures.length);
+    for (Future<T> future : futures) {
+      list.add(future);
+    }
+    return awaitAll(list);
+  }
+
+  /**
+   * Await the first success among {@code futures} with a single park, the pending futures are left untouched. When all
+   * the futures fail, the last failure is thrown.
+   *
+   * @return the first result
+   */
+  public static <T> T awaitAny(List<? extends Future<T>> futures) {
+    return awaitAny(futures, null);
+  }
+
+  /**
+   * Like {@link #awaitAny(List)}, once the outcome is known or the {@link #deadline} of the context expires
+   * {@code cancel} is called with the index of each pending future, so the caller can cancel the operations it owns.
+   */
+  public static <T> T awaitAny(List<? extends Future<T>> futures, IntConsumer cancel) {
+    VirtualThreadContext ctx = virtualThreadContext();
+    return ctx.await(futures, 1, false, cancel).get(0);
+  }
+
+  /**
+   * Like {@link #awaitAny(List, IntConsumer)} with the promises of operations owned by the caller, the losers are
+   * failed with a {@link CancellationException}.
+   */
+  @SafeVarargs
+  public static <T> T awaitAny(Promise<T>... promises) {
+    List<Promise<T>> owned = new ArrayList<>(promises.length);
+    for (Promise<T> promise : promises) {
+      owned.add(promise);
+    }
+    return awaitAny(futures(owned), cancel(owned));
+  }
+
+  /**
+   * Like {@link #awaitAny(List)}.
+   */
+  @SafeVarargs
+  public static <T> T awaitAny(Future<T>... futures) {
+    List<Future<T>> list = new ArrayList<>(futures.length);
+    for (Future<T> future : futures) {
+      list.add(future);
+    }
+    return awaitAny(list);
+  }
+
+  /**
+   * Await the first {@code n} successes among {@code futures} with a single park, the pending futures are left untouched.
+   * When too many futures fail for {@code n} of them to succeed, the last failure is thrown.
+   *
+   * @return the first {@code n} results in the order of completion
+   */
+  public static <T> List<T> awaitFirstN(int n, List<? extends Future<T>> futures) {
+    return awaitFirstN(n, futures, null);
+  }
+
+  /**
+   * Like {@link #awaitFirstN(int, List)}, once the outcome is known or the {@link #deadline} of the context expires
+   * {@code cancel} is called with the index of each pending future, so the caller can cancel the operations it owns.
+   */
+  public static <T> List<T> awaitFirstN(int n, List<? extends Future<T>> futures, IntConsumer cancel) {
+    VirtualThreadContext ctx = virtualThreadContext();
+    return ctx.await(futures, n, false, cancel);
+  }
+
+  /**
+   * Like {@link #awaitFirstN(int, List, IntConsumer)} with the promises of operations owned by the caller, the losers
+   * are failed with a {@link CancellationException}.
+   */
+  @SafeVarargs
+  public static <T> List<T> awaitFirstN(int n, Promise<T>... promises) {
+    List<Promise<T>> owned = new ArrayList<>(promises.length);
+    for (Promise<T> promise : promises) {
+      owned.add(promise);
+    }
+    return awaitFirstN(n, futures(owned), cancel(owned));
+  }
+
+  private static <T> List<Future<T>> futures(List<Promise<T>> promises) {
+    List<Future<T>> futures = new ArrayList<>(promises.size());
+    for (Promise<T> promise : promises) {
+      futures.add(promise.future());
+    }
+    return futures;
+  }
+
+  private static <T> IntConsumer cancel(List<Promise<T>> promises) {
+    return index -> promises.get(index).tryFail(new CancellationException("Cancelled once the outcome is known"));
+  }
+
+  /**
+   * Like {@link #awaitFirstN(int, List)}.
+   */
+  @SafeVarargs
+  public static <T> List<T> awaitFirstN(int n, Future<T>... futures) {
+    List<Future<T>> list = new ArrayList<>(futures.length);
+    for (Future<T> future : futures) {
+      list.add(future);
+    }
+    return awaitFirstN(n, list);
+  }
+
+  /**
+   * Let the tasks queued on the current context run, e.g. timers or I/O events waiting behind a long computation, the
+   * current thread is resumed after them.
+   */
+  public static void yield() {
+    VirtualThreadContext ctx = virtualThreadContext();
+    ctx.yield();
+  }
+
+  /**
+   * Yield when the current thread has been running for longer than {@link AsyncOptions#getYieldInterval()} since it
+   * last started or resumed, a long computation can call it in its loop to bound the latency of the context events.
+   *
+   * @return whether the current thread has yielded
+   */
+  public static boolean yieldIfNeeded() {
+    VirtualThreadContext ctx = virtualThreadContext();
+    return ctx.yieldIfNeeded();
+  }
+
+  /**
+   * Set a deadline on the current context, the awaits of the context exceeding the deadline throw
+   * a {@link java.util.concurrent.TimeoutException}. The awaited {@link Promise} or {@link CompletableFuture} is also
+   * failed with it, a {@link Future} or {@link CompletionStage} is left to its other consumers.
+   *
+   * @param timeout the time until the deadline, must be {@code >= 0}
+   */
+  public static void deadline(long timeout, TimeUnit unit) {
+    if (timeout < 0) {
+      throw new IllegalArgumentException("Timeout must be >= 0");
+    }
+    VirtualThreadContext ctx = virtualThreadContext();
+    ctx.deadline(unit.toNanos(timeout));
+  }
+
+  /**
+   * Remove the deadline of the current context.
+   */
+  public static void removeDeadline() {
+    VirtualThreadContext ctx = virtualThreadContext();
+    ctx.deadline(-1L);
+  }
+
+  /**
+   * Like {@link #iterator(ReadStream, int)} with {@link #DEFAULT_PREFETCH}.
+   */
+  public static <T> AsyncIterator<T> iterator(ReadStream<T> stream) {
+    return iterator(stream, DEFAULT_PREFETCH);
+  }
+
+  /**
+   * Iterate {@code stream} from the current thread, at most {@code prefetch} items are buffered before the stream is
+   * paused, the stream is resumed as the items are consumed. The iterator must be closed when the iteration stops
+   * before the end of the stream.
+   */
+  public static <T> AsyncIterator<T> iterator(ReadStream<T> stream, int prefetch) {
+    VirtualThreadContext ctx = virtualThreadContext();
+    return new ReadStreamIterator<>(ctx, stream, prefetch);
+  }
+
+  /**
+   * Like {@link #stream(ReadStream, int)} with {@link #DEFAULT_PREFETCH}.
+   */
+  public static <T> Stream<T> stream(ReadStream<T> stream) {
+    return stream(stream, DEFAULT_PREFETCH);
+  }
+
+  /**
+   * A sequential {@link Stream} view of {@code stream} backed by {@link #iterator(ReadStream, int)}, closing the
+   * returned stream closes the iterator.
+   */
+  public static <T> Stream<T> stream(ReadStream<T> stream, int prefetch) {
+    AsyncIterator<T> it = iterator(stream, prefetch);
+    return StreamSupport
+      .stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false)
+      .onClose(it::close);
+  }
+
+  /**
+   * A writer to {@code stream} for the current thread, a write waits until the stream is drained when its write queue
+   * is full.
+   */
+  public static <T> AsyncWriter<T> writer(WriteStream<T> stream) {
+    VirtualThreadContext ctx = virtualThreadContext();
+    return new WriteStreamWriter<>(ctx, stream);
+  }
+
+  /**
+   * Like {@link #writer(WriteStream)}, the small buffers written are batched up to {@code batchSize} bytes before
+   * being written to {@code stream}.
+   */
+  public static AsyncWriter<Buffer> writer(WriteStream<Buffer> stream, int batchSize) {
+    VirtualThreadContext ctx = virtualThreadContext();
+    return new BufferWriter(ctx, stream, batchSize);
+  }
 }
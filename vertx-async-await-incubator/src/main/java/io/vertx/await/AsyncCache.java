@@ -0,0 +1,119 @@
+package io.vertx.await;
+
+import io.vertx.await.impl.LocalCache;
+import io.vertx.await.impl.VirtualThreadContext;
+import io.vertx.core.Future;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A bounded cache local to each virtual thread context, the entries are evicted in least recently used order and can
+ * expire after a time to live.
+ *
+ * Each context has its own entries, a lookup does not synchronize with the other contexts. A miss awaits the loader
+ * future, the threads of the context looking up the same key meanwhile await the same load. A failed load is not
+ * cached.
+ *
+ * The entries of a context are not thread safe, even a lookup updates the eviction order: they rely on the context
+ * running one thread at a time. The duplicates of a context, e.g. the context of each HTTP request, run on the
+ * scheduler of the context and share its entries.
+ *
+ * The entries live as long as the context, the cache is most effective with contexts reused across tasks, e.g. the
+ * keyed contexts of {@link Async#run(Object, io.vertx.core.Handler)}.
+ *
+ * The methods must be called from a virtual thread context.
+ */
+public class AsyncCache<K, V> {
+
+  private final int maxSize;
+  private final long ttlNanos;
+  private final Function<? super K, Future<V>> loader;
+
+  /**
+   * Create a cache whose entries do not expire.
+   *
+   * @param maxSize the max number of entries per context
+   * @param loader the loader of the missing entries
+   */
+  public AsyncCache(int maxSize, Function<? super K, Future<V>> loader) {
+    this(maxSize, 0L, TimeUnit.MILLISECONDS, loader);
+  }
+
+  /**
+   * @param maxSize the max number of entries per context
+   * @param ttl the time to live of an entry, {@code 0} means entries do not expire
+   * @param unit the unit of {@code ttl}
+   * @param loader the loader of the missing entries
+   */
+  public AsyncCache(int maxSize, long ttl, TimeUnit unit, Function<? super K, Future<V>> loader) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Max size must be > 0");
+    }
+    if (ttl < 0) {
+      throw new IllegalArgumentException("TTL must be >= 0");
+    }
+    this.maxSize = maxSize;
+    this.ttlNanos = unit.toNanos(ttl);
+    this.loader = loader;
+  }
+
+  /**
+   * Get the value of {@code key}, loading it when absent or expired.
+   *
+   * @return the value
+   */
+  public V get(K key) {
+    LocalCache<K, V> cache = cache();
+    Future<V> future = cache.get(key, loader);
+    if (future.succeeded()) {
+      return future.result();
+    }
+    try {
+      return Async.await(future);
+    } catch (Throwable t) {
+      cache.remove(key, future);
+      throw t;
+    }
+  }
+
+  /**
+   * @return the loaded value of {@code key} or {@code null}
+   */
+  public V getIfPresent(K key) {
+    Future<V> future = cache().getIfPresent(key);
+    return future != null && future.succeeded() ? future.result() : null;
+  }
+
+  /**
+   * Remove the entry of {@code key} from the cache of the current context.
+   */
+  public void invalidate(K key) {
+    cache().remove(key);
+  }
+
+  /**
+   * Remove the entries of the cache of the current context.
+   */
+  public void invalidateAll() {
+    cache().clear();
+  }
+
+  /**
+   * @return the number of entries of the cache of the current context
+   */
+  public int size() {
+    return cache().size();
+  }
+
+  @SuppressWarnings("unchecked")
+  private LocalCache<K, V> cache() {
+    // The duplicates share the entries of their root context
+    VirtualThreadContext context = Async.virtualThreadContext().root();
+    LocalCache<K, V> cache = (LocalCache<K, V>) context.contextData().get(this);
+    if (cache == null) {
+      cache = (LocalCache<K, V>) context.contextData().computeIfAbsent(this, k -> new LocalCache<>(maxSize, ttlNanos));
+    }
+    return cache;
+  }
+}
@@ -0,0 +1,74 @@
+package io.vertx.await;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * A count down latch for virtual thread contexts.
+ *
+ * A thread awaiting the latch releases its scheduler and is queued, the count down reaching zero resumes the queued
+ * threads through a continuation of their scheduler.
+ *
+ * {@link #await()} must be called from a virtual thread context, {@link #countDown()} can be called from any thread.
+ */
+public class AsyncCountDownLatch {
+
+  private final ArrayDeque<BiConsumer<Void, Throwable>> waiters = new ArrayDeque<>();
+  private long count;
+
+  public AsyncCountDownLatch(long count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Count must be >= 0");
+    }
+    this.count = count;
+  }
+
+  /**
+   * Wait until the count reaches zero.
+   */
+  public void await() {
+    synchronized (this) {
+      if (count == 0) {
+        return;
+      }
+    }
+    Async.virtualThreadContext().<Void>suspend(resume -> {
+      boolean released;
+      synchronized (this) {
+        released = count == 0;
+        if (!released) {
+          waiters.add(resume);
+        }
+      }
+      if (released) {
+        resume.accept(null, null);
+      }
+    });
+  }
+
+  /**
+   * Decrement the count, the waiting threads are resumed when it reaches zero.
+   */
+  public void countDown() {
+    List<BiConsumer<Void, Throwable>> resumed;
+    synchronized (this) {
+      if (count == 0 || --count > 0) {
+        return;
+      }
+      resumed = new ArrayList<>(waiters);
+      waiters.clear();
+    }
+    for (BiConsumer<Void, Throwable> waiter : resumed) {
+      waiter.accept(null, null);
+    }
+  }
+
+  /**
+   * @return the current count
+   */
+  public synchronized long getCount() {
+    return count;
+  }
+}
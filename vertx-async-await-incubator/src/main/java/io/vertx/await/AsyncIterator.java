@@ -0,0 +1,24 @@
+package io.vertx.await;
+
+import java.util.Iterator;
+
+/**
+ * A blocking iterator over a {@link io.vertx.core.streams.ReadStream} for virtual thread contexts, see
+ * {@link Async#iterator(io.vertx.core.streams.ReadStream, int)}.
+ *
+ * {@link #hasNext()} parks the current thread until the stream emits, ends or fails, a stream failure is thrown
+ * after the buffered items have been consumed.
+ */
+public interface AsyncIterator<T> extends Iterator<T>, AutoCloseable {
+
+  /**
+   * @return the number of buffered items
+   */
+  int buffered();
+
+  /**
+   * Stop the iteration, the buffered items are discarded and the stream is resumed so it can be drained to its end.
+   */
+  @Override
+  void close();
+}
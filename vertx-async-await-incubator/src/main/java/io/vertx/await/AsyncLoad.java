@@ -0,0 +1,24 @@
+package io.vertx.await;
+
+/**
+ * The load of the tasks run from non Vert.x threads on an event-loop, see {@link Async#load(io.netty.channel.EventLoop)}.
+ *
+ * A task awaiting counts twice since it holds a thread that will run again.
+ */
+public interface AsyncLoad {
+
+  /**
+   * @return the number of tasks submitted and not yet completed
+   */
+  long pendingTasks();
+
+  /**
+   * @return the number of awaits in flight
+   */
+  long awaitsInFlight();
+
+  /**
+   * @return the pending tasks plus the awaits in flight
+   */
+  long load();
+}
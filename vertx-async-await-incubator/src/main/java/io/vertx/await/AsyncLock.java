@@ -0,0 +1,148 @@
+package io.vertx.await;
+
+import io.vertx.await.impl.ContinuationScheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * A non reentrant mutual exclusion lock for virtual thread contexts.
+ *
+ * Unlike {@link Async#lock(java.util.concurrent.locks.Lock)}, a thread waiting for the lock does not block on the lock:
+ * it releases its scheduler and is queued, the thread unlocking resumes the next queued thread through a continuation
+ * of its scheduler.
+ *
+ * The lock is owned by the thread that acquired it, or by the task when the context runs its tasks as continuations
+ * sharing the event-loop thread, see {@link AsyncOptions#setUseContinuations}.
+ *
+ * {@link #lock()} and the condition {@link Condition#await()} must be called from a virtual thread context.
+ */
+public class AsyncLock {
+
+  private final AsyncSemaphore semaphore = new AsyncSemaphore(1);
+  // The owning thread or continuation
+  private volatile Object owner;
+
+  private static Object current() {
+    Object continuation = ContinuationScheduler.currentContinuation();
+    return continuation != null ? continuation : Thread.currentThread();
+  }
+
+  /**
+   * Acquire the lock, waiting until it is available.
+   */
+  public void lock() {
+    semaphore.acquire();
+    owner = current();
+  }
+
+  /**
+   * Acquire the lock when it is available without waiting.
+   *
+   * @return whether the lock has been acquired
+   */
+  public boolean tryLock() {
+    if (semaphore.tryAcquire()) {
+      owner = current();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Release the lock, the next queued thread is resumed.
+   *
+   * @throws IllegalMonitorStateException when the current thread does not hold the lock
+   */
+  public void unlock() {
+    if (owner != current()) {
+      throw new IllegalMonitorStateException();
+    }
+    owner = null;
+    semaphore.release();
+  }
+
+  /**
+   * @return whether the current thread, or the current task with continuations, holds the lock
+   */
+  public boolean isHeldByCurrentThread() {
+    return owner == current();
+  }
+
+  /**
+   * @return a new condition bound to this lock
+   */
+  public Condition newCondition() {
+    return new Condition();
+  }
+
+  /**
+   * A condition bound to the lock, a thread awaiting the condition releases the lock and is queued until signalled,
+   * it then acquires the lock again.
+   */
+  public class Condition {
+
+    private final ArrayDeque<BiConsumer<Void, Throwable>> waiters = new ArrayDeque<>();
+
+    private Condition() {
+    }
+
+    /**
+     * Release the lock and wait until signalled, the lock is acquired again before returning.
+     *
+     * @throws IllegalMonitorStateException when the current thread does not hold the lock
+     */
+    public void await() {
+      if (owner != current()) {
+        throw new IllegalMonitorStateException();
+      }
+      Async.virtualThreadContext().<Void>suspend(resume -> {
+        synchronized (this) {
+          waiters.add(resume);
+        }
+        // Unlock once queued so a signal cannot be missed
+        unlock();
+      });
+      lock();
+    }
+
+    /**
+     * Resume the longest waiting thread.
+     *
+     * @throws IllegalMonitorStateException when the current thread does not hold the lock
+     */
+    public void signal() {
+      if (owner != current()) {
+        throw new IllegalMonitorStateException();
+      }
+      BiConsumer<Void, Throwable> waiter;
+      synchronized (this) {
+        waiter = waiters.poll();
+      }
+      if (waiter != null) {
+        waiter.accept(null, null);
+      }
+    }
+
+    /**
+     * Resume all the waiting threads.
+     *
+     * @throws IllegalMonitorStateException when the current thread does not hold the lock
+     */
+    public void signalAll() {
+      if (owner != current()) {
+        throw new IllegalMonitorStateException();
+      }
+      List<BiConsumer<Void, Throwable>> resumed;
+      synchronized (this) {
+        resumed = new ArrayList<>(waiters);
+        waiters.clear();
+      }
+      for (BiConsumer<Void, Throwable> waiter : resumed) {
+        waiter.accept(null, null);
+      }
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package io.vertx.await;
+
+/**
+ * The activity recorded by the schedulers and virtual thread contexts of an {@link Async} instance when metrics
+ * are enabled.
+ */
+public interface AsyncMetrics {
+
+  /**
+   * The number of buckets of the {@link #queueDelayHistogram()}.
+   */
+  int QUEUE_DELAY_BUCKETS = 64;
+
+  /**
+   * @return the number of tasks submitted and not yet running
+   */
+  long queueDepth();
+
+  /**
+   * @return the number of tasks that have completed
+   */
+  long tasksCompleted();
+
+  /**
+   * @return the number of virtual threads created by the schedulers
+   */
+  long threadsStarted();
+
+  /**
+   * @return the number of virtual threads currently awaiting
+   */
+  long awaitsInFlight();
+
+  /**
+   * The histogram of the time between the submission of a task and its run, the bucket {@code i > 0} counts the delays
+   * in {@code [2^(i-1), 2^i)} nanoseconds and the bucket {@code 0} counts the zero delays.
+   *
+   * @return a snapshot of the histogram
+   */
+  long[] queueDelayHistogram();
+}
@@ -0,0 +1,607 @@
+package io.vertx.await;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options configuring {@link Async}.
+ */
+public class AsyncOptions {
+
+  /**
+   * The default value for using virtual threads scheduled on the event-loop = {@code false}
+   */
+  public static final boolean DEFAULT_USE_VIRTUAL_EVENT_LOOP_THREADS = false;
+
+  /**
+   * The default value for running tasks as continuations on the event-loop = {@code false}
+   */
+  public static final boolean DEFAULT_USE_CONTINUATIONS = false;
+
+  /**
+   * The default value for starting tasks inline on the event-loop = {@code false}
+   */
+  public static final boolean DEFAULT_LAZY_PROMOTION = false;
+
+  /**
+   * The default value for sharing a scheduler per event-loop = {@code false}
+   */
+  public static final boolean DEFAULT_SHARED_SCHEDULER = false;
+
+  /**
+   * The default value for work stealing between event-loops = {@code false}
+   */
+  public static final boolean DEFAULT_WORK_STEALING = false;
+
+  /**
+   * The default max number of tasks a scheduler executes per drain = 64
+   */
+  public static final int DEFAULT_MAX_DRAIN_TASKS = 64;
+
+  /**
+   * The default max time a scheduler executes tasks per drain = 0 (no limit)
+   */
+  public static final long DEFAULT_MAX_DRAIN_TIME = 0L;
+
+  /**
+   * The default max drain time unit = {@link TimeUnit#NANOSECONDS}
+   */
+  public static final TimeUnit DEFAULT_MAX_DRAIN_TIME_UNIT = TimeUnit.NANOSECONDS;
+
+  /**
+   * The default resume policy = {@link ResumePolicy#LIFO}, the last resumed thread runs first like in the schedulers
+   * without a configurable policy
+   */
+  public static final ResumePolicy DEFAULT_RESUME_POLICY = ResumePolicy.LIFO;
+
+  /**
+   * The default number of resumed threads run per queued task with {@link ResumePolicy#WEIGHTED} = {@link Integer#MAX_VALUE},
+   * resumed threads then always run before queued tasks
+   */
+  public static final int DEFAULT_RESUME_WEIGHT = Integer.MAX_VALUE;
+
+  /**
+   * The default value for recording metrics = {@code false}
+   */
+  public static final boolean DEFAULT_METRICS_ENABLED = false;
+
+  /**
+   * The default name of the Vert.x pool metrics = {@code "vert.x-async"}
+   */
+  public static final String DEFAULT_METRICS_NAME = "vert.x-async";
+
+  /**
+   * The default time an await must be parked before checking whether it pins its carrier = 0 (disabled)
+   */
+  public static final long DEFAULT_PINNED_AWAIT_THRESHOLD = 0L;
+
+  /**
+   * The default pinned await threshold time unit = {@link TimeUnit#MILLISECONDS}
+   */
+  public static final TimeUnit DEFAULT_PINNED_AWAIT_THRESHOLD_UNIT = TimeUnit.MILLISECONDS;
+
+  /**
+   * The default value for moving a context pinning its carrier to the default scheduler = {@code false}
+   */
+  public static final boolean DEFAULT_MIGRATE_ON_PINNED_AWAIT = false;
+
+  /**
+   * The default max time a continuation runs on the event-loop before being reported = 0 (disabled)
+   */
+  public static final long DEFAULT_MAX_CONTINUATION_TIME = 0L;
+
+  /**
+   * The default max continuation time unit = {@link TimeUnit#MILLISECONDS}
+   */
+  public static final TimeUnit DEFAULT_MAX_CONTINUATION_TIME_UNIT = TimeUnit.MILLISECONDS;
+
+  /**
+   * The default number of overruns after which a context is moved away from the event-loop = 0 (never)
+   */
+  public static final int DEFAULT_MIGRATE_AFTER_OVERRUNS = 0;
+
+  /**
+   * The default time a thread runs before {@link Async#yieldIfNeeded()} yields = 0 (never)
+   */
+  public static final long DEFAULT_YIELD_INTERVAL = 0L;
+
+  /**
+   * The default yield interval unit = {@link TimeUnit#MILLISECONDS}
+   */
+  public static final TimeUnit DEFAULT_YIELD_INTERVAL_UNIT = TimeUnit.MILLISECONDS;
+
+  /**
+   * The default number of dedicated carrier threads of the default scheduler = 0 (JVM-wide virtual thread scheduler)
+   */
+  public static final int DEFAULT_CARRIER_POOL_SIZE = 0;
+
+  private boolean useVirtualEventLoopThreads;
+  private boolean useContinuations;
+  private boolean lazyPromotion;
+  private boolean sharedScheduler;
+  private boolean workStealing;
+  private int maxDrainTasks;
+  private long maxDrainTime;
+  private TimeUnit maxDrainTimeUnit;
+  private ResumePolicy resumePolicy;
+  private int resumeWeight;
+  private boolean metricsEnabled;
+  private String metricsName;
+  private long pinnedAwaitThreshold;
+  private TimeUnit pinnedAwaitThresholdUnit;
+  private boolean migrateOnPinnedAwait;
+  private long maxContinuationTime;
+  private TimeUnit maxContinuationTimeUnit;
+  private int migrateAfterOverruns;
+  private long yieldInterval;
+  private TimeUnit yieldIntervalUnit;
+  private int carrierPoolSize;
+
+  public AsyncOptions() {
+    useVirtualEventLoopThreads = DEFAULT_USE_VIRTUAL_EVENT_LOOP_THREADS;
+    useContinuations = DEFAULT_USE_CONTINUATIONS;
+    lazyPromotion = DEFAULT_LAZY_PROMOTION;
+    sharedScheduler = DEFAULT_SHARED_SCHEDULER;
+    workStealing = DEFAULT_WORK_STEALING;
+    maxDrainTasks = DEFAULT_MAX_DRAIN_TASKS;
+    maxDrainTime = DEFAULT_MAX_DRAIN_TIME;
+    maxDrainTimeUnit = DEFAULT_MAX_DRAIN_TIME_UNIT;
+    resumePolicy = DEFAULT_RESUME_POLICY;
+    resumeWeight = DEFAULT_RESUME_WEIGHT;
+    metricsEnabled = DEFAULT_METRICS_ENABLED;
+    metricsName = DEFAULT_METRICS_NAME;
+    pinnedAwaitThreshold = DEFAULT_PINNED_AWAIT_THRESHOLD;
+    pinnedAwaitThresholdUnit = DEFAULT_PINNED_AWAIT_THRESHOLD_UNIT;
+    migrateOnPinnedAwait = DEFAULT_MIGRATE_ON_PINNED_AWAIT;
+    maxContinuationTime = DEFAULT_MAX_CONTINUATION_TIME;
+    maxContinuationTimeUnit = DEFAULT_MAX_CONTINUATION_TIME_UNIT;
+    migrateAfterOverruns = DEFAULT_MIGRATE_AFTER_OVERRUNS;
+    yieldInterval = DEFAULT_YIELD_INTERVAL;
+    yieldIntervalUnit = DEFAULT_YIELD_INTERVAL_UNIT;
+    carrierPoolSize = DEFAULT_CARRIER_POOL_SIZE;
+  }
+
+  public AsyncOptions(AsyncOptions other) {
+    useVirtualEventLoopThreads = other.useVirtualEventLoopThreads;
+    useContinuations = other.useContinuations;
+    lazyPromotion = other.lazyPromotion;
+    sharedScheduler = other.sharedScheduler;
+    workStealing = other.workStealing;
+    maxDrainTasks = other.maxDrainTasks;
+    maxDrainTime = other.maxDrainTime;
+    maxDrainTimeUnit = other.maxDrainTimeUnit;
+    resumePolicy = other.resumePolicy;
+    resumeWeight = other.resumeWeight;
+    metricsEnabled = other.metricsEnabled;
+    metricsName = other.metricsName;
+    pinnedAwaitThreshold = other.pinnedAwaitThreshold;
+    pinnedAwaitThresholdUnit = other.pinnedAwaitThresholdUnit;
+    migrateOnPinnedAwait = other.migrateOnPinnedAwait;
+    maxContinuationTime = other.maxContinuationTime;
+    maxContinuationTimeUnit = other.maxContinuationTimeUnit;
+    migrateAfterOverruns = other.migrateAfterOverruns;
+    yieldInterval = other.yieldInterval;
+    yieldIntervalUnit = other.yieldIntervalUnit;
+    carrierPoolSize = other.carrierPoolSize;
+  }
+
+  /**
+   * @return whether virtual threads are scheduled on the event-loop
+   */
+  public boolean isUseVirtualEventLoopThreads() {
+    return useVirtualEventLoopThreads;
+  }
+
+  /**
+   * Set whether virtual threads are scheduled on the event-loop, this requires specific JVM runtime configuration.
+   *
+   * @param useVirtualEventLoopThreads the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setUseVirtualEventLoopThreads(boolean useVirtualEventLoopThreads) {
+    this.useVirtualEventLoopThreads = useVirtualEventLoopThreads;
+    return this;
+  }
+
+  /**
+   * @return whether tasks run as continuations on the event-loop
+   */
+  public boolean isUseContinuations() {
+    return useContinuations;
+  }
+
+  /**
+   * Set whether tasks run as {@code jdk.internal.vm.Continuation} carried by the event-loop thread instead of virtual
+   * threads, no thread is created per task. This is experimental and requires
+   * {@code --add-opens java.base/jdk.internal.vm=ALL-UNNAMED}, it takes precedence over
+   * {@link #setUseVirtualEventLoopThreads}.
+   *
+   * @param useContinuations the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setUseContinuations(boolean useContinuations) {
+    this.useContinuations = useContinuations;
+    return this;
+  }
+
+  /**
+   * @return whether tasks start inline on the event-loop until they first await
+   */
+  public boolean isLazyPromotion() {
+    return lazyPromotion;
+  }
+
+  /**
+   * Set whether a task run by {@link Async#run(io.vertx.core.Handler)} from its event-loop starts inline on the
+   * event-loop thread instead of being queued, the tasks executed on its context afterwards are queued. Its
+   * frames are only captured when it first awaits and it is then resumed on the event-loop. A task that never awaits
+   * runs at the cost of a plain event-loop handler. This implies {@link #setUseContinuations}.
+   *
+   * @param lazyPromotion the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setLazyPromotion(boolean lazyPromotion) {
+    this.lazyPromotion = lazyPromotion;
+    return this;
+  }
+
+  /**
+   * @return whether a single scheduler is used per event-loop
+   */
+  public boolean isSharedScheduler() {
+    return sharedScheduler;
+  }
+
+  /**
+   * Set whether {@link Async#run} uses a single scheduler per event-loop instead of creating one on each call, each
+   * call still gets its own lightweight context on top of the shared scheduler. Tasks run from the same event-loop
+   * are then serialized by the same scheduler while keeping their own context data.
+   *
+   * @param sharedScheduler the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setSharedScheduler(boolean sharedScheduler) {
+    this.sharedScheduler = sharedScheduler;
+    return this;
+  }
+
+  /**
+   * @return whether idle event-loops steal work from busy event-loops
+   */
+  public boolean isWorkStealing() {
+    return workStealing;
+  }
+
+  /**
+   * Set whether idle event-loops steal work from busy event-loops, this only applies when virtual threads are
+   * scheduled on the event-loop. The tasks of a context are never executed by two event-loops at the same time.
+   *
+   * @param workStealing the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setWorkStealing(boolean workStealing) {
+    this.workStealing = workStealing;
+    return this;
+  }
+
+  /**
+   * @return the max number of tasks a scheduler executes per drain
+   */
+  public int getMaxDrainTasks() {
+    return maxDrainTasks;
+  }
+
+  /**
+   * Set the max number of tasks a scheduler executes before yielding its carrier, a lower value trades
+   * throughput for tail latency.
+   *
+   * @param maxDrainTasks the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setMaxDrainTasks(int maxDrainTasks) {
+    if (maxDrainTasks < 1) {
+      throw new IllegalArgumentException("maxDrainTasks must be > 0");
+    }
+    this.maxDrainTasks = maxDrainTasks;
+    return this;
+  }
+
+  /**
+   * @return the max time a scheduler executes tasks per drain
+   */
+  public long getMaxDrainTime() {
+    return maxDrainTime;
+  }
+
+  /**
+   * Set the max time a scheduler executes tasks before yielding its carrier, {@code 0} means no limit.
+   *
+   * @param maxDrainTime the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setMaxDrainTime(long maxDrainTime) {
+    if (maxDrainTime < 0) {
+      throw new IllegalArgumentException("maxDrainTime must be >= 0");
+    }
+    this.maxDrainTime = maxDrainTime;
+    return this;
+  }
+
+  /**
+   * @return the time unit of {@code maxDrainTime}
+   */
+  public TimeUnit getMaxDrainTimeUnit() {
+    return maxDrainTimeUnit;
+  }
+
+  /**
+   * Set the time unit of {@code maxDrainTime}.
+   *
+   * @param maxDrainTimeUnit the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setMaxDrainTimeUnit(TimeUnit maxDrainTimeUnit) {
+    this.maxDrainTimeUnit = maxDrainTimeUnit;
+    return this;
+  }
+
+  /**
+   * @return the ordering of resumed threads with respect to queued tasks
+   */
+  public ResumePolicy getResumePolicy() {
+    return resumePolicy;
+  }
+
+  /**
+   * Set the ordering of resumed threads with respect to queued tasks, this applies to both schedulers.
+   *
+   * @param resumePolicy the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setResumePolicy(ResumePolicy resumePolicy) {
+    this.resumePolicy = resumePolicy;
+    return this;
+  }
+
+  /**
+   * @return the number of resumed threads run per queued task with {@link ResumePolicy#WEIGHTED}
+   */
+  public int getResumeWeight() {
+    return resumeWeight;
+  }
+
+  /**
+   * Set the number of resumed threads run per queued task when the policy is {@link ResumePolicy#WEIGHTED}.
+   *
+   * @param resumeWeight the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setResumeWeight(int resumeWeight) {
+    if (resumeWeight < 1) {
+      throw new IllegalArgumentException("resumeWeight must be > 0");
+    }
+    this.resumeWeight = resumeWeight;
+    return this;
+  }
+
+  /**
+   * @return whether metrics are recorded
+   */
+  public boolean isMetricsEnabled() {
+    return metricsEnabled;
+  }
+
+  /**
+   * Set whether the schedulers and contexts record metrics, they are also reported to the Vert.x pool metrics when
+   * a metrics backend is configured.
+   *
+   * @param metricsEnabled the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setMetricsEnabled(boolean metricsEnabled) {
+    this.metricsEnabled = metricsEnabled;
+    return this;
+  }
+
+  /**
+   * @return the name of the Vert.x pool metrics
+   */
+  public String getMetricsName() {
+    return metricsName;
+  }
+
+  /**
+   * Set the name of the Vert.x pool metrics.
+   *
+   * @param metricsName the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setMetricsName(String metricsName) {
+    this.metricsName = metricsName;
+    return this;
+  }
+
+  /**
+   * @return the time an await must be parked before checking whether it pins its carrier
+   */
+  public long getPinnedAwaitThreshold() {
+    return pinnedAwaitThreshold;
+  }
+
+  /**
+   * Set the time an await must be parked before checking whether it pins its carrier, a pinned await is reported with
+   * the stack of the awaiting thread. {@code 0} disables the detection.
+   *
+   * @param pinnedAwaitThreshold the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setPinnedAwaitThreshold(long pinnedAwaitThreshold) {
+    if (pinnedAwaitThreshold < 0) {
+      throw new IllegalArgumentException("pinnedAwaitThreshold must be >= 0");
+    }
+    this.pinnedAwaitThreshold = pinnedAwaitThreshold;
+    return this;
+  }
+
+  /**
+   * @return the time unit of {@code pinnedAwaitThreshold}
+   */
+  public TimeUnit getPinnedAwaitThresholdUnit() {
+    return pinnedAwaitThresholdUnit;
+  }
+
+  /**
+   * Set the time unit of {@code pinnedAwaitThreshold}.
+   *
+   * @param pinnedAwaitThresholdUnit the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setPinnedAwaitThresholdUnit(TimeUnit pinnedAwaitThresholdUnit) {
+    this.pinnedAwaitThresholdUnit = pinnedAwaitThresholdUnit;
+    return this;
+  }
+
+  /**
+   * @return whether a context pinning its event-loop carrier is moved to the default scheduler
+   */
+  public boolean isMigrateOnPinnedAwait() {
+    return migrateOnPinnedAwait;
+  }
+
+  /**
+   * Set whether a context pinning its event-loop carrier is moved to the default scheduler, so its tasks do not stall
+   * the event-loop anymore once the tasks already submitted have completed.
+   *
+   * @param migrateOnPinnedAwait the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setMigrateOnPinnedAwait(boolean migrateOnPinnedAwait) {
+    this.migrateOnPinnedAwait = migrateOnPinnedAwait;
+    return this;
+  }
+
+  /**
+   * @return the max time a continuation runs on the event-loop before being reported
+   */
+  public long getMaxContinuationTime() {
+    return maxContinuationTime;
+  }
+
+  /**
+   * Set the max time a virtual thread runs on the event-loop without parking before being reported with its stack,
+   * this only applies when virtual threads are scheduled on the event-loop. {@code 0} disables the watchdog.
+   *
+   * @param maxContinuationTime the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setMaxContinuationTime(long maxContinuationTime) {
+    if (maxContinuationTime < 0) {
+      throw new IllegalArgumentException("maxContinuationTime must be >= 0");
+    }
+    this.maxContinuationTime = maxContinuationTime;
+    return this;
+  }
+
+  /**
+   * @return the time unit of {@code maxContinuationTime}
+   */
+  public TimeUnit getMaxContinuationTimeUnit() {
+    return maxContinuationTimeUnit;
+  }
+
+  /**
+   * Set the time unit of {@code maxContinuationTime}.
+   *
+   * @param maxContinuationTimeUnit the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setMaxContinuationTimeUnit(TimeUnit maxContinuationTimeUnit) {
+    this.maxContinuationTimeUnit = maxContinuationTimeUnit;
+    return this;
+  }
+
+  /**
+   * @return the number of overruns after which a context is moved away from the event-loop
+   */
+  public int getMigrateAfterOverruns() {
+    return migrateAfterOverruns;
+  }
+
+  /**
+   * Set the number of times the threads of a context overrun {@code maxContinuationTime} before the context is moved
+   * to the default scheduler, {@code 0} never moves contexts.
+   *
+   * @param migrateAfterOverruns the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setMigrateAfterOverruns(int migrateAfterOverruns) {
+    if (migrateAfterOverruns < 0) {
+      throw new IllegalArgumentException("migrateAfterOverruns must be >= 0");
+    }
+    this.migrateAfterOverruns = migrateAfterOverruns;
+    return this;
+  }
+
+  /**
+   * @return the time a thread runs before {@link Async#yieldIfNeeded()} yields
+   */
+  public long getYieldInterval() {
+    return yieldInterval;
+  }
+
+  /**
+   * Set the time a thread runs without awaiting before {@link Async#yieldIfNeeded()} yields to the tasks queued on its
+   * context, {@code 0} never yields.
+   *
+   * @param yieldInterval the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setYieldInterval(long yieldInterval) {
+    if (yieldInterval < 0) {
+      throw new IllegalArgumentException("yieldInterval must be >= 0");
+    }
+    this.yieldInterval = yieldInterval;
+    return this;
+  }
+
+  /**
+   * @return the yield interval unit
+   */
+  public TimeUnit getYieldIntervalUnit() {
+    return yieldIntervalUnit;
+  }
+
+  /**
+   * Set the yield interval unit.
+   *
+   * @param yieldIntervalUnit the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setYieldIntervalUnit(TimeUnit yieldIntervalUnit) {
+    this.yieldIntervalUnit = yieldIntervalUnit;
+    return this;
+  }
+
+  /**
+   * @return the number of dedicated carrier threads of the default scheduler
+   */
+  public int getCarrierPoolSize() {
+    return carrierPoolSize;
+  }
+
+  /**
+   * Set the number of carrier threads of a pool dedicated to the virtual threads of the default scheduler, instead of
+   * the JVM-wide virtual thread scheduler, this requires specific JVM runtime configuration and {@code Async} fails to
+   * be created without it. The pool is shared by the {@code Async} instances of a Vert.x instance, which must use the
+   * same size, and is closed with Vert.x. {@code 0} uses the JVM-wide scheduler.
+   *
+   * @param carrierPoolSize the value
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AsyncOptions setCarrierPoolSize(int carrierPoolSize) {
+    if (carrierPoolSize < 0) {
+      throw new IllegalArgumentException("carrierPoolSize must be >= 0");
+    }
+    this.carrierPoolSize = carrierPoolSize;
+    return this;
+  }
+}
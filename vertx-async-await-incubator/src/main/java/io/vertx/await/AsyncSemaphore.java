@@ -0,0 +1,142 @@
+package io.vertx.await;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * A counting semaphore for virtual thread contexts.
+ *
+ * A thread that cannot acquire its permits releases its scheduler and is queued, a release resumes the queued threads
+ * in order through a continuation of their scheduler. Permits are granted in order: a thread never overtakes a queued
+ * thread.
+ *
+ * {@link #acquire} must be called from a virtual thread context, {@link #release} can be called from any thread.
+ */
+public class AsyncSemaphore {
+
+  private static class Waiter {
+    final int permits;
+    final BiConsumer<Void, Throwable> resume;
+    Waiter(int permits, BiConsumer<Void, Throwable> resume) {
+      this.permits = permits;
+      this.resume = resume;
+    }
+  }
+
+  private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+  private int permits;
+
+  public AsyncSemaphore(int permits) {
+    if (permits < 0) {
+      throw new IllegalArgumentException("Permits must be >= 0");
+    }
+    this.permits = permits;
+  }
+
+  /**
+   * Acquire a permit, waiting until one is available.
+   */
+  public void acquire() {
+    acquire(1);
+  }
+
+  /**
+   * Acquire {@code n} permits, waiting until they are available.
+   */
+  public void acquire(int n) {
+    if (tryAcquire(n)) {
+      return;
+    }
+    Async.virtualThreadContext().<Void>suspend(resume -> {
+      boolean acquired;
+      synchronized (this) {
+        // Permits might have been released while the thread was suspending
+        acquired = waiters.isEmpty() && permits >= n;
+        if (acquired) {
+          permits -= n;
+        } else {
+          waiters.add(new Waiter(n, resume));
+        }
+      }
+      if (acquired) {
+        resume.accept(null, null);
+      }
+    });
+  }
+
+  /**
+   * Acquire a permit when one is available without waiting.
+   *
+   * @return whether the permit has been acquired
+   */
+  public boolean tryAcquire() {
+    return tryAcquire(1);
+  }
+
+  /**
+   * Acquire {@code n} permits when they are available without waiting.
+   *
+   * @return whether the permits have been acquired
+   */
+  public synchronized boolean tryAcquire(int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("Permits must be >= 0");
+    }
+    if (waiters.isEmpty() && permits >= n) {
+      permits -= n;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Release a permit.
+   */
+  public void release() {
+    release(1);
+  }
+
+  /**
+   * Release {@code n} permits, the queued threads whose permits are available are resumed.
+   */
+  public void release(int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("Permits must be >= 0");
+    }
+    List<Waiter> resumed = null;
+    synchronized (this) {
+      permits += n;
+      Waiter waiter;
+      while ((waiter = waiters.peek()) != null && permits >= waiter.permits) {
+        waiters.poll();
+        permits -= waiter.permits;
+        if (resumed == null) {
+          resumed = new ArrayList<>(1);
+        }
+        resumed.add(waiter);
+      }
+    }
+    if (resumed != null) {
+      // Resume outside of the monitor, a resumed thread can run immediately
+      for (Waiter waiter : resumed) {
+        waiter.resume.accept(null, null);
+      }
+    }
+  }
+
+  /**
+   * @return the number of available permits
+   */
+  public synchronized int availablePermits() {
+    return permits;
+  }
+
+  /**
+   * @return the number of queued threads
+   */
+  public synchronized int queueLength() {
+    return waiters.size();
+  }
+}
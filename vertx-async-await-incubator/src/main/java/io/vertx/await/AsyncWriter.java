@@ -0,0 +1,34 @@
+package io.vertx.await;
+
+/**
+ * A blocking writer to a {@link io.vertx.core.streams.WriteStream} for virtual thread contexts, see
+ * {@link Async#writer(io.vertx.core.streams.WriteStream)}.
+ *
+ * A write to a stream whose write queue is full waits until the stream is drained, the writing thread releases its
+ * scheduler meanwhile. Writes are not awaited individually, a write failure is thrown by the next call to the writer.
+ *
+ * The writer owns the drain handler of the stream, it must not be used by another party while the writer is in use.
+ */
+public interface AsyncWriter<T> extends AutoCloseable {
+
+  /**
+   * Write {@code item}, waiting first for the stream to be drained when its write queue is full.
+   */
+  void write(T item);
+
+  /**
+   * Write the pending items to the stream.
+   */
+  void flush();
+
+  /**
+   * Flush the pending items and end the stream, waiting until the stream has ended.
+   */
+  void end();
+
+  /**
+   * Flush the pending items, the stream is not ended.
+   */
+  @Override
+  void close();
+}
@@ -0,0 +1,25 @@
+package io.vertx.await;
+
+/**
+ * How a scheduler orders the continuation of a thread resumed after an await with respect to the queued tasks.
+ */
+public enum ResumePolicy {
+
+  /**
+   * Resumed continuations preempt queued tasks, the last resumed continuation runs first, this is the default.
+   */
+  LIFO,
+
+  /**
+   * Resumed continuations are queued after the tasks already queued.
+   */
+  FIFO,
+
+  /**
+   * Resumed continuations and queued tasks are kept in two lanes, up to {@code resumeWeight} resumed continuations
+   * run for each queued task, resumed continuations run in the order they were resumed. With an unbounded weight
+   * resumed continuations always preempt queued tasks.
+   */
+  WEIGHTED
+
+}
@@ -0,0 +1,97 @@
+package io.vertx.await.impl;
+
+import io.vertx.core.impl.future.Listener;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Parks the awaiting virtual thread until the awaited result is signalled, the thread is then resumed through
+ * the scheduler continuation.
+ *
+ * The awaiter is at the same time the future listener and the continuation task, so awaiting allocates
+ * a single object.
+ *
+ * The awaiter is completed once, the outcome signalled first wins, e.g. a timeout racing with the awaited result.
+ */
+class Awaiter<T> implements Listener<T>, BiConsumer<T, Throwable>, Runnable {
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicIntegerFieldUpdater<Awaiter> COMPLETED = AtomicIntegerFieldUpdater.newUpdater(Awaiter.class, "completed");
+
+  private final Thread thread;
+  private final Consumer<Runnable> cont;
+  private T result;
+  private Throwable failure;
+  private volatile int completed;
+  private volatile boolean resumed;
+
+  Awaiter(Consumer<Runnable> cont) {
+    this.thread = Thread.currentThread();
+    this.cont = cont;
+  }
+
+  @Override
+  public void onSuccess(T value) {
+    if (COMPLETED.compareAndSet(this, 0, 1)) {
+      result = value;
+      cont.accept(this);
+    }
+  }
+
+  @Override
+  public void onFailure(Throwable cause) {
+    if (COMPLETED.compareAndSet(this, 0, 1)) {
+      failure = cause;
+      cont.accept(this);
+    }
+  }
+
+  @Override
+  public void accept(T value, Throwable cause) {
+    if (cause == null) {
+      onSuccess(value);
+    } else {
+      onFailure(cause);
+    }
+  }
+
+  /**
+   * Resume the awaiting thread, called when the thread has been given back the scheduler permit.
+   */
+  @Override
+  public void run() {
+    resumed = true;
+    // A continuation carried by a platform thread is mounted again by the scheduler, the carrier must not be unparked
+    if (thread.isVirtual()) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /**
+   * Park until resumed, interruptions are deferred until the thread owns the scheduler permit again.
+   *
+   * @return the result or throws the failure
+   */
+  T await() {
+    boolean interrupted = false;
+    while (!resumed) {
+      // A continuation carried by a platform thread yields instead of parking its carrier
+      if (thread.isVirtual() || !ContinuationScheduler.yield()) {
+        LockSupport.park(this);
+      }
+      if (Thread.interrupted()) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      thread.interrupt();
+    }
+    if (failure != null) {
+      VirtualThreadContext.throwAsUnchecked(failure);
+    }
+    return result;
+  }
+}
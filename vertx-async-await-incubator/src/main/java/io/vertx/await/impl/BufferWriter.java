@@ -0,0 +1,58 @@
+package io.vertx.await.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+
+/**
+ * A {@link WriteStreamWriter} batching the small buffers written, the buffers are appended to a batch written to the
+ * stream once it reaches the batch size or when the writer is flushed. A buffer larger than the batch size is written
+ * directly after the pending batch.
+ */
+public class BufferWriter extends WriteStreamWriter<Buffer> {
+
+  private final int batchSize;
+  private Buffer batch;
+
+  /**
+   * @param context the context of the writing thread
+   * @param stream the stream to write to
+   * @param batchSize the size in bytes of the batches written to the stream
+   */
+  public BufferWriter(VirtualThreadContext context, WriteStream<Buffer> stream, int batchSize) {
+    super(context, stream);
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be > 0");
+    }
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public void write(Buffer buffer) {
+    if (buffer.length() >= batchSize) {
+      flush();
+      super.write(buffer);
+      return;
+    }
+    if (batch == null) {
+      batch = Buffer.buffer(batchSize);
+    }
+    batch.appendBuffer(buffer);
+    if (batch.length() >= batchSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Write the pending batch to the stream.
+   */
+  @Override
+  public void flush() {
+    Buffer pending = batch;
+    if (pending != null && pending.length() > 0) {
+      batch = null;
+      super.write(pending);
+    } else {
+      super.flush();
+    }
+  }
+}
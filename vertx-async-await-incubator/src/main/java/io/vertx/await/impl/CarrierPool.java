@@ -0,0 +1,95 @@
+package io.vertx.await.impl;
+
+import io.vertx.core.Closeable;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A dedicated pool of carrier threads for the virtual threads of {@link DefaultScheduler}, instead of the JVM-wide
+ * virtual thread scheduler shared with the other libraries of the process.
+ *
+ * Like the JVM-wide scheduler the pool is a {@link ForkJoinPool} in FIFO mode, its parallelism bounds the number of
+ * virtual threads running at the same time, so blocking code running on other carriers cannot starve it.
+ *
+ * A Vert.x instance has a single pool shared by its {@code Async} instances, the pool is shut down when the Vert.x
+ * instance is closed.
+ */
+public class CarrierPool implements Closeable {
+
+  private static final ConcurrentMap<Vertx, CarrierPool> pools = new ConcurrentHashMap<>();
+
+  public static boolean isAvailable() {
+    return EventLoopScheduler.isAvailable();
+  }
+
+  /**
+   * Get the pool of {@code vertx}, the first call creates it.
+   *
+   * @param parallelism the number of carrier threads
+   * @throws IllegalStateException when a pool cannot be created or when the pool of {@code vertx} has another
+   *                               parallelism
+   */
+  public static CarrierPool get(Vertx vertx, int parallelism) {
+    if (!isAvailable()) {
+      throw new IllegalStateException("Carrier pools are not available, requires --add-opens java.base/java.lang=ALL-UNNAMED");
+    }
+    CarrierPool pool = pools.computeIfAbsent(vertx, v -> new CarrierPool(v, parallelism));
+    if (pool.parallelism() != parallelism) {
+      throw new IllegalStateException("The carrier pool of this Vert.x instance has " + pool.parallelism() + " carriers");
+    }
+    return pool;
+  }
+
+  private final Vertx vertx;
+  private final ForkJoinPool pool;
+  private final ThreadFactory threadFactory;
+
+  /**
+   * @param vertx the Vert.x instance owning the pool
+   * @param parallelism the number of carrier threads
+   */
+  private CarrierPool(Vertx vertx, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be > 0");
+    }
+    this.vertx = vertx;
+    AtomicInteger count = new AtomicInteger();
+    this.pool = new ForkJoinPool(parallelism, p -> {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+      thread.setName("vert.x-virtual-thread-carrier-" + count.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }, null, true);
+    this.threadFactory = EventLoopScheduler.threadFactory(pool);
+    ((VertxInternal) vertx).addCloseHook(this);
+  }
+
+  /**
+   * @return the factory of virtual threads carried by this pool
+   */
+  public ThreadFactory threadFactory() {
+    return threadFactory;
+  }
+
+  /**
+   * @return the number of carrier threads
+   */
+  public int parallelism() {
+    return pool.getParallelism();
+  }
+
+  @Override
+  public void close(Promise<Void> completion) {
+    pools.remove(vertx, this);
+    pool.shutdown();
+    completion.complete();
+  }
+}
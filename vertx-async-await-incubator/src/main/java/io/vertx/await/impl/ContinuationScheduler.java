@@ -0,0 +1,255 @@
+package io.vertx.await.impl;
+
+import io.vertx.await.ResumePolicy;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxThread;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.function.Consumer;
+
+/**
+ * An experimental scheduler running each task as a {@code jdk.internal.vm.Continuation} carried by an event-loop
+ * run queue instead of a virtual thread, no {@link Thread} is created per task.
+ *
+ * An await yields the continuation back to the run queue, the continuation is mounted again on the event-loop when
+ * the awaited result is available. The tasks run on the event-loop thread: thread locals are those of the event-loop
+ * and awaiting while holding a monitor fails with an {@link IllegalStateException} since the continuation cannot
+ * yield. Acquiring a blocking {@link java.util.concurrent.locks.Lock} would block the event-loop and is rejected,
+ * {@code AsyncLock} parks the continuation instead and is owned by the continuation rather than the shared thread.
+ *
+ * The Vert.x context of the event-loop thread is saved when a continuation yields and restored when it is mounted
+ * again, so the event-loop does not observe the context of a suspended task.
+ *
+ * With lazy promotion the first task of a context started from an idle event-loop runs inline on the caller stack
+ * instead of being queued, the continuation frames are only captured when the task first awaits: a task that never
+ * awaits runs at the cost of a plain event-loop handler. The other tasks are always queued, like the tasks of a Vert.x
+ * context.
+ *
+ * Requires {@code --add-opens java.base/jdk.internal.vm=ALL-UNNAMED}.
+ */
+public class ContinuationScheduler implements Scheduler {
+
+  static final boolean ok;
+  private static final Object SCOPE;
+  private static final MethodHandle NEW_CONTINUATION;
+  private static final MethodHandle RUN;
+  private static final MethodHandle IS_DONE;
+  private static final MethodHandle YIELD;
+  private static final MethodHandle CURRENT;
+  private static final VarHandle CONTEXT;
+  private static final VarHandle EXEC_START;
+
+  public static boolean isAvailable() {
+    return ok;
+  }
+
+  static {
+    boolean isOk = false;
+    Object scope = null;
+    MethodHandle newContinuation = null;
+    MethodHandle run = null;
+    MethodHandle isDone = null;
+    MethodHandle yield = null;
+    MethodHandle current = null;
+    VarHandle context = null;
+    VarHandle execStart = null;
+    try {
+      Class<?> scopeClass = Class.forName("jdk.internal.vm.ContinuationScope", false, null);
+      Class<?> continuationClass = Class.forName("jdk.internal.vm.Continuation", false, null);
+      MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(continuationClass, MethodHandles.lookup());
+      scope = lookup.findConstructor(scopeClass, MethodType.methodType(void.class, String.class)).invoke("vert.x-async");
+      newContinuation = lookup.findConstructor(continuationClass, MethodType.methodType(void.class, scopeClass, Runnable.class))
+        .asType(MethodType.methodType(Object.class, Object.class, Runnable.class));
+      run = lookup.findVirtual(continuationClass, "run", MethodType.methodType(void.class))
+        .asType(MethodType.methodType(void.class, Object.class));
+      isDone = lookup.findVirtual(continuationClass, "isDone", MethodType.methodType(boolean.class))
+        .asType(MethodType.methodType(boolean.class, Object.class));
+      yield = lookup.findStatic(continuationClass, "yield", MethodType.methodType(boolean.class, scopeClass))
+        .asType(MethodType.methodType(void.class, Object.class));
+      current = lookup.findStatic(continuationClass, "getCurrentContinuation", MethodType.methodType(continuationClass, scopeClass))
+        .asType(MethodType.methodType(Object.class, Object.class));
+      MethodHandles.Lookup vertxThread = MethodHandles.privateLookupIn(VertxThread.class, MethodHandles.lookup());
+      context = vertxThread.findVarHandle(VertxThread.class, "context", ContextInternal.class);
+      execStart = vertxThread.findVarHandle(VertxThread.class, "execStart", long.class);
+      isOk = true;
+    } catch (Throwable e) {
+      // no good
+    }
+    ok = isOk;
+    SCOPE = scope;
+    NEW_CONTINUATION = newContinuation;
+    RUN = run;
+    IS_DONE = isDone;
+    YIELD = yield;
+    CURRENT = current;
+    CONTEXT = context;
+    EXEC_START = execStart;
+  }
+
+  /**
+   * Yield the continuation mounted on the current thread.
+   *
+   * @return {@code false} when no continuation of this scheduler is mounted on the current thread
+   */
+  static boolean yield() {
+    if (currentContinuation() == null) {
+      return false;
+    }
+    try {
+      // The caller checks again whether it has been resumed
+      YIELD.invokeExact(SCOPE);
+      return true;
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new UndeclaredThrowableException(e);
+    }
+  }
+
+  /**
+   * The tasks of the continuation schedulers of an event-loop share its thread, the continuation identifies the task
+   * running on the current thread.
+   *
+   * @return the continuation of a task mounted on the current thread or {@code null}
+   */
+  public static Object currentContinuation() {
+    if (!ok) {
+      return null;
+    }
+    try {
+      return (Object) CURRENT.invokeExact(SCOPE);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new UndeclaredThrowableException(e);
+    }
+  }
+
+  private final EventLoopRunQueue runQueue;
+  private final boolean lazy;
+  // Only accessed from the event-loop thread
+  private Task current;
+
+  /**
+   * Create a scheduler carried by {@code runQueue}, the run queue can be shared by the schedulers of an event-loop.
+   */
+  public ContinuationScheduler(EventLoopRunQueue runQueue) {
+    this(runQueue, false);
+  }
+
+  /**
+   * Create a scheduler carried by {@code runQueue}.
+   *
+   * When {@code lazy} is {@code true}, a task started from the event-loop while the run queue is idle runs inline.
+   */
+  public ContinuationScheduler(EventLoopRunQueue runQueue, boolean lazy) {
+    if (!ok) {
+      throw new IllegalStateException("Continuations are not available, requires --add-opens java.base/jdk.internal.vm=ALL-UNNAMED");
+    }
+    this.runQueue = runQueue;
+    this.lazy = lazy;
+  }
+
+  /**
+   * A context task and the state of the event-loop thread saved when the task yields.
+   */
+  private final class Task implements Runnable {
+
+    private final Object continuation;
+    private boolean started;
+    private boolean mounted;
+    private ContextInternal context;
+    private long execStart;
+
+    Task(Runnable task) {
+      try {
+        continuation = NEW_CONTINUATION.invokeExact(SCOPE, task);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    }
+
+    @Override
+    public void run() {
+      if (!mounted) {
+        mount(this);
+      }
+    }
+  }
+
+  private void mount(Task task) {
+    Thread th = Thread.currentThread();
+    VertxThread vth = th instanceof VertxThread ? (VertxThread) th : null;
+    ContextInternal outerContext = null;
+    long outerExecStart = 0L;
+    if (vth != null) {
+      outerContext = (ContextInternal) CONTEXT.get(vth);
+      outerExecStart = (long) EXEC_START.get(vth);
+      if (task.started) {
+        CONTEXT.set(vth, task.context);
+        EXEC_START.set(vth, task.execStart != 0L ? System.nanoTime() : 0L);
+      }
+    }
+    task.started = true;
+    task.mounted = true;
+    Task prev = current;
+    current = task;
+    try {
+      if (!(boolean) IS_DONE.invokeExact(task.continuation)) {
+        RUN.invokeExact(task.continuation);
+      }
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new UndeclaredThrowableException(e);
+    } finally {
+      current = prev;
+      task.mounted = false;
+      if (vth != null) {
+        task.context = (ContextInternal) CONTEXT.get(vth);
+        task.execStart = (long) EXEC_START.get(vth);
+        CONTEXT.set(vth, outerContext);
+        EXEC_START.set(vth, outerExecStart);
+      }
+    }
+  }
+
+  @Override
+  public ResumePolicy resumePolicy() {
+    return runQueue.resumePolicy();
+  }
+
+  @Override
+  public Consumer<Runnable> unschedule() {
+    Task task = current;
+    if (task == null) {
+      throw new IllegalStateException("Not running a task of this scheduler");
+    }
+    return resume -> runQueue.execute(() -> {
+      resume.run();
+      task.run();
+    });
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    runQueue.executeTask(new Task(command));
+  }
+
+  @Override
+  public void start(Runnable command) {
+    Task task = new Task(command);
+    // A task of this scheduler running inline must not be overtaken by the tasks it starts
+    if (lazy && current == null && runQueue.isIdleEventLoop()) {
+      mount(task);
+    } else {
+      runQueue.executeTask(task);
+    }
+  }
+}
@@ -1,8 +1,13 @@
 package io.vertx.await.impl;
 
-import java.util.LinkedList;
+import io.vertx.await.ResumePolicy;
+
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 
 /**
@@ -15,99 +20,241 @@ import java.util.function.Consumer;
  *
  * A task can await a future, when it happens, a new virtual thread is started to continue task execution.
  *
- * When an awaited future is completed, the thread awaiting the future preempts the execution and the current virtual
+ * When tasks are awaiting, a virtual thread that has no more tasks to execute or that has been preempted is kept in a
+ * small idle pool, it is reused instead of starting a new virtual thread and terminates after a keep alive time.
+ *
+ * When an awaited future is completed, the thread awaiting the future is ordered with the queued tasks according to the
+ * {@link ResumePolicy}, by default it preempts the execution and the current virtual
  * thread executing tasks is stopped.
+ *
+ * The scheduler is lock-free: tasks and resumed continuations are held in lock-free queues
+ * drained by the thread owning the scheduler permit, the permit ({@code current}) is acquired and released with
+ * atomic operations.
  */
 public class DefaultScheduler implements Scheduler {
 
   public static final ThreadFactory DEFAULT_THREAD_FACTORY = Thread.ofVirtual().name("vert.x-virtual-thread-", 0).factory();
 
+  /**
+   * Placeholder owner of the permit while a runner is being handed the permit.
+   */
+  private static final Thread STARTING = Thread.ofVirtual().unstarted(() -> {});
+
+  public static final int DEFAULT_MAX_IDLE_THREADS = 2;
+  public static final long DEFAULT_KEEP_ALIVE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
   private final ThreadFactory threadFactory;
-  private final LinkedList<Runnable> tasks = new LinkedList<>();
-  private Thread current;
-  private final ReentrantLock lock = new ReentrantLock();
+  private final AtomicReferenceArray<Thread> idle;
+  private final long keepAliveNanos;
+  private final int maxDrainTasks;
+  private final long maxDrainNanos;
+  private final TaskLanes lanes;
+  private final AtomicReference<Thread> current = new AtomicReference<>();
+  private final AtomicInteger suspended = new AtomicInteger();
 
   public DefaultScheduler(ThreadFactory threadFactory) {
+    this(threadFactory, DEFAULT_MAX_IDLE_THREADS, DEFAULT_KEEP_ALIVE_NANOS);
+  }
+
+  /**
+   * @param threadFactory the factory creating the runner threads
+   * @param maxIdleThreads the max number of idle runners kept for reuse
+   * @param keepAliveNanos the time an idle runner waits for the permit before terminating
+   */
+  public DefaultScheduler(ThreadFactory threadFactory, int maxIdleThreads, long keepAliveNanos) {
+    this(threadFactory, maxIdleThreads, keepAliveNanos, Integer.MAX_VALUE, 0L);
+  }
+
+  /**
+   * @param threadFactory the factory creating the runner threads
+   * @param maxIdleThreads the max number of idle runners kept for reuse
+   * @param keepAliveNanos the time an idle runner waits for the permit before terminating
+   * @param maxDrainTasks the max number of tasks a runner executes before yielding its carrier
+   * @param maxDrainNanos the max time a runner executes tasks before yielding its carrier, {@code 0} for no limit
+   */
+  public DefaultScheduler(ThreadFactory threadFactory, int maxIdleThreads, long keepAliveNanos, int maxDrainTasks, long maxDrainNanos) {
+    this(threadFactory, maxIdleThreads, keepAliveNanos, maxDrainTasks, maxDrainNanos, ResumePolicy.LIFO, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @param threadFactory the factory creating the runner threads
+   * @param maxIdleThreads the max number of idle runners kept for reuse
+   * @param keepAliveNanos the time an idle runner waits for the permit before terminating
+   * @param maxDrainTasks the max number of tasks a runner executes before yielding its carrier
+   * @param maxDrainNanos the max time a runner executes tasks before yielding its carrier, {@code 0} for no limit
+   * @param resumePolicy the ordering of resumed threads with respect to queued tasks
+   * @param resumeWeight the number of resumed threads run per queued task with {@link ResumePolicy#WEIGHTED}
+   */
+  public DefaultScheduler(ThreadFactory threadFactory, int maxIdleThreads, long keepAliveNanos, int maxDrainTasks, long maxDrainNanos,
+                          ResumePolicy resumePolicy, int resumeWeight) {
+    if (maxDrainTasks < 1) {
+      throw new IllegalArgumentException("Max drain tasks must be > 0");
+    }
+    if (maxDrainNanos < 0) {
+      throw new IllegalArgumentException("Max drain nanos must be >= 0");
+    }
     this.threadFactory = threadFactory;
+    this.idle = new AtomicReferenceArray<>(maxIdleThreads);
+    this.keepAliveNanos = keepAliveNanos;
+    this.maxDrainTasks = maxDrainTasks;
+    this.maxDrainNanos = maxDrainNanos;
+    this.lanes = new TaskLanes(resumePolicy, resumeWeight);
+  }
+
+  @Override
+  public ResumePolicy resumePolicy() {
+    return lanes.policy();
   }
 
   @Override
   public void execute(Runnable command) {
-    Thread toStart;
-    lock.lock();
-    try {
-      tasks.addLast(command);
-      if (current != null) {
-        return;
+    lanes.addTask(command);
+    startIfIdle();
+  }
+
+  /**
+   * Hand the permit to a runner when no thread owns it.
+   */
+  private void startIfIdle() {
+    if (current.get() == null && current.compareAndSet(null, STARTING)) {
+      handOff(nextRunner());
+    }
+  }
+
+  /**
+   * @return an idle runner from the pool or a new unstarted thread
+   */
+  private Thread nextRunner() {
+    for (int i = 0;i < idle.length();i++) {
+      Thread th = idle.get(i);
+      if (th != null && idle.compareAndSet(i, th, null)) {
+        return th;
       }
-      toStart = threadFactory.newThread(this::run);
-      current = toStart;
-    } finally {
-      lock.unlock();
     }
-    toStart.start();
+    return threadFactory.newThread(this::run);
+  }
+
+  /**
+   * Give the permit to {@code runner}, the current owner must be the caller.
+   */
+  private void handOff(Thread runner) {
+    current.set(runner);
+    if (runner.getState() == Thread.State.NEW) {
+      runner.start();
+    } else {
+      LockSupport.unpark(runner);
+    }
+  }
+
+  private boolean hasPending() {
+    return !lanes.isEmpty();
   }
 
   private void run() {
+    Thread th = Thread.currentThread();
     while (true) {
-      Runnable cmd;
-      lock.lock();
-      try {
-        if (current != Thread.currentThread()) {
-          break;
-        }
-        cmd = tasks.poll();
-        if (cmd == null) {
-          current = null;
-          break;
+      boolean preempted = drain(th);
+      if (!preempted && suspended.get() == 0) {
+        // No thread will resume and need a replacement runner soon
+        break;
+      }
+      if (!awaitPermit(th)) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Execute tasks until the queues are empty or the permit is taken by a resumed thread, the runner yields its carrier
+   * when the drain budget is exhausted.
+   *
+   * @return whether the permit was taken by a resumed thread
+   */
+  private boolean drain(Thread th) {
+    int count = 0;
+    long start = maxDrainNanos > 0 ? System.nanoTime() : 0L;
+    while (true) {
+      if (current.get() != th) {
+        return true;
+      }
+      Runnable cmd = lanes.poll();
+      if (cmd == null) {
+        current.set(null);
+        // A producer might have enqueued after our poll and seen the permit still owned
+        if (hasPending() && current.compareAndSet(null, th)) {
+          continue;
         }
-      } finally {
-        lock.unlock();
+        return false;
       }
       cmd.run();
+      if (++count >= maxDrainTasks || (maxDrainNanos > 0 && System.nanoTime() - start >= maxDrainNanos)) {
+        if (hasPending()) {
+          // Keep the permit and let other virtual threads use the carrier
+          Thread.yield();
+        }
+        count = 0;
+        start = maxDrainNanos > 0 ? System.nanoTime() : 0L;
+      }
     }
   }
 
-  public Consumer<Runnable> unschedule() {
-    Thread th = Thread.currentThread();
-    Thread toStart;
-    lock.lock();
-    try {
-      if (current != th) {
-        throw new IllegalStateException();
+  /**
+   * Park the runner in the idle pool until it is handed the permit again.
+   *
+   * @return {@code true} when the runner owns the permit, {@code false} when the runner should terminate
+   */
+  private boolean awaitPermit(Thread th) {
+    int slot = -1;
+    for (int i = 0;i < idle.length();i++) {
+      if (idle.compareAndSet(i, null, th)) {
+        slot = i;
+        break;
       }
-      if (tasks.size() > 0) {
-        toStart = threadFactory.newThread(this::run);
+    }
+    if (slot == -1) {
+      return false;
+    }
+    long deadline = System.nanoTime() + keepAliveNanos;
+    while (current.get() != th) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining > 0) {
+        LockSupport.parkNanos(this, remaining);
+      } else if (idle.compareAndSet(slot, th, null)) {
+        return false;
       } else {
-        toStart = null;
+        // Removed from the pool by a producer that is handing us the permit
+        LockSupport.park(this);
       }
-      current = toStart;
-    } finally {
-      lock.unlock();
     }
-    if (toStart != null) {
-      toStart.start();
+    return true;
+  }
+
+  public Consumer<Runnable> unschedule() {
+    Thread th = Thread.currentThread();
+    if (current.get() != th) {
+      throw new IllegalStateException();
+    }
+    suspended.incrementAndGet();
+    if (hasPending()) {
+      handOff(nextRunner());
+    } else {
+      current.set(null);
+      if (hasPending()) {
+        startIfIdle();
+      }
     }
     return r -> {
-      lock.lock();
-      try {
-        if (current != null) {
-          tasks.addFirst(() -> {
-            lock.lock();
-            try {
-              current = th;
-            } finally {
-              lock.unlock();
-            }
-            r.run();
-          });
-          return;
-        }
-        current = th;
-      } finally {
-        lock.unlock();
+      if (current.get() == null && current.compareAndSet(null, th)) {
+        suspended.decrementAndGet();
+        r.run();
+        return;
       }
-      r.run();
+      lanes.addResumed(() -> {
+        current.set(th);
+        suspended.decrementAndGet();
+        r.run();
+      });
+      startIfIdle();
     };
   }
 }
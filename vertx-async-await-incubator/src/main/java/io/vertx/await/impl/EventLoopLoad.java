@@ -0,0 +1,46 @@
+package io.vertx.await.impl;
+
+import io.vertx.await.AsyncLoad;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The load of the contexts placed on an event-loop by load: the tasks submitted and not yet completed plus the awaits
+ * in flight, a task awaiting counts twice since it holds a thread that will run again.
+ */
+public class EventLoopLoad implements AsyncLoad {
+
+  private final LongAdder pending = new LongAdder();
+  private final LongAdder awaits = new LongAdder();
+
+  void submitted() {
+    pending.increment();
+  }
+
+  void ended() {
+    pending.decrement();
+  }
+
+  void awaitBegin() {
+    awaits.increment();
+  }
+
+  void awaitEnd() {
+    awaits.decrement();
+  }
+
+  @Override
+  public long pendingTasks() {
+    return pending.sum();
+  }
+
+  @Override
+  public long awaitsInFlight() {
+    return awaits.sum();
+  }
+
+  @Override
+  public long load() {
+    return pending.sum() + awaits.sum();
+  }
+}
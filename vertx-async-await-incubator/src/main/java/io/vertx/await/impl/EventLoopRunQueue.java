@@ -0,0 +1,315 @@
+package io.vertx.await.impl;
+
+import io.netty.channel.EventLoop;
+import io.vertx.await.ResumePolicy;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The run queue of virtual thread continuations carried by an event-loop.
+ *
+ * Continuations can be submitted from any thread, a single drain task is submitted to the event-loop and runs
+ * a batch of continuations per wake-up bounded in size and optionally in time, the drain task is submitted again when
+ * continuations remain.
+ *
+ * Continuations of resumed threads are ordered with respect to continuations of newly started threads according to
+ * a {@link ResumePolicy}.
+ *
+ * When the run queue belongs to a {@link WorkStealingGroup}, units submitted with {@link #executeStealable} can be
+ * stolen and run by an idle event-loop of the group. A unit runs its continuations within the budget of the run queue
+ * executing it.
+ */
+public class EventLoopRunQueue implements Executor {
+
+  /**
+   * The default max number of continuations run per drain = 64
+   */
+  public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+  private static final ThreadLocal<Boolean> STARTING = new ThreadLocal<>();
+
+  /**
+   * A unit of continuations that can be stolen, its continuations are run by the run queue executing the unit.
+   */
+  interface Unit {
+
+    /**
+     * Run continuations of the unit with {@link #run(Runnable)} of {@code runQueue}.
+     *
+     * @param runQueue the run queue executing the unit
+     * @param maxTasks the max number of continuations to run
+     * @param deadline the time after which no continuation should start or {@code 0} for no limit
+     * @return the number of continuations run
+     */
+    int run(EventLoopRunQueue runQueue, int maxTasks, long deadline);
+  }
+
+  private final Executor carrier;
+  private final int maxBatchSize;
+  private final long maxBatchNanos;
+  private final int resumeWeight;
+  private final TaskLanes lanes;
+  private final Queue<Unit> stealable = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private final Runnable drainTask = this::drain;
+  private final WorkStealingGroup group;
+  private final AtomicBoolean helping = new AtomicBoolean();
+  private final AtomicLong steals = new AtomicLong();
+  private volatile boolean watched;
+  private volatile Thread carrierThread;
+  private volatile long runStart;
+  // Only accessed by the watchdog
+  long reportedStart;
+
+  public EventLoopRunQueue(Executor carrier) {
+    this(carrier, DEFAULT_MAX_BATCH_SIZE);
+  }
+
+  public EventLoopRunQueue(Executor carrier, int maxBatchSize) {
+    this(carrier, maxBatchSize, 0L, ResumePolicy.LIFO, Integer.MAX_VALUE, null);
+  }
+
+  /**
+   * Create a run queue added to the work stealing {@code group}.
+   *
+   * @param carrier the event-loop executing the continuations
+   * @param maxBatchSize the max number of continuations run per event-loop wake-up
+   * @param maxBatchNanos the max time spent running continuations per event-loop wake-up, {@code 0} for no limit
+   * @param resumePolicy the ordering of resumed threads with respect to newly started threads
+   * @param resumeWeight the number of resumed threads run per started thread with {@link ResumePolicy#WEIGHTED}
+   * @param group the work stealing group this run queue belongs to or {@code null}
+   */
+  public static EventLoopRunQueue create(Executor carrier, int maxBatchSize, long maxBatchNanos, ResumePolicy resumePolicy,
+                                         int resumeWeight, WorkStealingGroup group) {
+    EventLoopRunQueue runQueue = new EventLoopRunQueue(carrier, maxBatchSize, maxBatchNanos, resumePolicy, resumeWeight, group);
+    if (group != null) {
+      group.add(runQueue);
+    }
+    return runQueue;
+  }
+
+  private EventLoopRunQueue(Executor carrier, int maxBatchSize, long maxBatchNanos, ResumePolicy resumePolicy, int resumeWeight,
+                            WorkStealingGroup group) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("Max batch size must be > 0");
+    }
+    if (maxBatchNanos < 0) {
+      throw new IllegalArgumentException("Max batch nanos must be >= 0");
+    }
+    this.carrier = carrier;
+    this.maxBatchSize = maxBatchSize;
+    this.maxBatchNanos = maxBatchNanos;
+    this.resumeWeight = resumeWeight;
+    this.lanes = new TaskLanes(resumePolicy, resumeWeight);
+    this.group = group;
+  }
+
+  public ResumePolicy resumePolicy() {
+    return lanes.policy();
+  }
+
+  /**
+   * @return new lanes ordered with the resume policy of this run queue
+   */
+  TaskLanes createLanes() {
+    return new TaskLanes(lanes.policy(), resumeWeight);
+  }
+
+  /**
+   * @return whether the current thread is starting a thread with {@link #start}, its first continuation is then a task
+   */
+  static boolean isStarting() {
+    return STARTING.get() == Boolean.TRUE;
+  }
+
+  /**
+   * @return the number of tasks this run queue has stolen from other run queues, each continuation of a stolen unit
+   *         counts as a task
+   */
+  public long stealCount() {
+    return steals.get();
+  }
+
+  /**
+   * Start {@code thread}, its first continuation is queued after the resumed continuations.
+   */
+  void start(Thread thread) {
+    STARTING.set(Boolean.TRUE);
+    try {
+      thread.start();
+    } finally {
+      STARTING.remove();
+    }
+  }
+
+  @Override
+  public void execute(Runnable continuation) {
+    if (STARTING.get() == Boolean.TRUE) {
+      lanes.addTask(continuation);
+    } else {
+      lanes.addResumed(continuation);
+    }
+    schedule();
+  }
+
+  /**
+   * Execute a new task, it is queued after the resumed continuations like a started thread and never runs on the
+   * caller stack, even from the event-loop.
+   */
+  void executeTask(Runnable task) {
+    lanes.addTask(task);
+    if (scheduled.compareAndSet(false, true)) {
+      carrier.execute(drainTask);
+    }
+  }
+
+  /**
+   * @return whether the current thread is the event-loop and no continuation is queued or draining, a task can then
+   *         run inline without overtaking queued work
+   */
+  boolean isIdleEventLoop() {
+    return carrier instanceof EventLoop && ((EventLoop) carrier).inEventLoop() && !scheduled.get() && lanes.isEmpty();
+  }
+
+  /**
+   * Execute a unit that does not need to run on this event-loop, when the run queue is busy the unit can be stolen
+   * by an idle event-loop of the group.
+   */
+  void executeStealable(Unit unit) {
+    stealable.add(unit);
+    if (!schedule()) {
+      signal();
+    }
+  }
+
+  /**
+   * Signal the run queue has stealable work waiting for the event-loop.
+   */
+  void signal() {
+    if (group != null) {
+      group.signal(this);
+    }
+  }
+
+  /**
+   * @return whether the drain task was scheduled by this call
+   */
+  private boolean schedule() {
+    if (scheduled.compareAndSet(false, true)) {
+      if (carrier instanceof EventLoop && ((EventLoop) carrier).inEventLoop()) {
+        drain();
+      } else {
+        carrier.execute(drainTask);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Run a continuation on the current event-loop thread.
+   */
+  void run(Runnable continuation) {
+    if (watched) {
+      carrierThread = Thread.currentThread();
+      runStart = System.nanoTime();
+      try {
+        continuation.run();
+      } finally {
+        runStart = 0L;
+      }
+    } else {
+      continuation.run();
+    }
+  }
+
+  /**
+   * Record the start time of each continuation run, so a {@link HogWatchdog} can detect runs exceeding their budget.
+   */
+  void watch() {
+    watched = true;
+  }
+
+  /**
+   * @return the start time of the running continuation or {@code 0} when no continuation is running
+   */
+  long runStart() {
+    return runStart;
+  }
+
+  /**
+   * @return the event-loop thread carrying the continuations
+   */
+  Thread carrierThread() {
+    return carrierThread;
+  }
+
+  private boolean hasPending() {
+    return !lanes.isEmpty() || !stealable.isEmpty();
+  }
+
+  private long deadline(long start) {
+    return maxBatchNanos > 0 ? start + maxBatchNanos : 0L;
+  }
+
+  private void drain() {
+    long start = maxBatchNanos > 0 ? System.nanoTime() : 0L;
+    int count = 0;
+    while (count < maxBatchSize) {
+      Runnable continuation = lanes.poll();
+      if (continuation != null) {
+        run(continuation);
+        count++;
+      } else {
+        Unit unit = stealable.poll();
+        if (unit == null) {
+          break;
+        }
+        // The unit continuations are part of this batch
+        count += unit.run(this, maxBatchSize - count, deadline(start));
+      }
+      if (maxBatchNanos > 0 && System.nanoTime() - start >= maxBatchNanos) {
+        break;
+      }
+    }
+    scheduled.set(false);
+    if (hasPending() && scheduled.compareAndSet(false, true)) {
+      carrier.execute(drainTask);
+      if (!stealable.isEmpty()) {
+        signal();
+      }
+    }
+  }
+
+  /**
+   * Ask this run queue to steal work from {@code busy} when it is idle.
+   *
+   * @return whether this run queue will help
+   */
+  boolean help(EventLoopRunQueue busy) {
+    if (scheduled.get() || hasPending() || !helping.compareAndSet(false, true)) {
+      return false;
+    }
+    carrier.execute(() -> steal(busy));
+    return true;
+  }
+
+  private void steal(EventLoopRunQueue busy) {
+    long start = maxBatchNanos > 0 ? System.nanoTime() : 0L;
+    int count = 0;
+    Unit unit;
+    while (count < maxBatchSize && !hasPending() && (unit = busy.stealable.poll()) != null) {
+      count += unit.run(this, maxBatchSize - count, deadline(start));
+      if (maxBatchNanos > 0 && System.nanoTime() - start >= maxBatchNanos) {
+        break;
+      }
+    }
+    // Count the continuations run, not the units
+    steals.addAndGet(count);
+    helping.set(false);
+  }
+}
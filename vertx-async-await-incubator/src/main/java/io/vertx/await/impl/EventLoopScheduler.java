@@ -1,14 +1,15 @@
 package io.vertx.await.impl;
 
 import io.netty.channel.EventLoop;
+import io.vertx.await.ResumePolicy;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.UndeclaredThrowableException;
-import java.util.LinkedList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 public class EventLoopScheduler implements Scheduler {
@@ -38,7 +39,7 @@ public class EventLoopScheduler implements Scheduler {
     virtualThreadFactory = vtf;
   }
 
-  private static ThreadFactory threadFactory(Executor carrier) {
+  static ThreadFactory threadFactory(Executor carrier) {
     try {
       Thread.Builder.OfVirtual ov = (Thread.Builder.OfVirtual) virtualThreadFactory.invokeExact(carrier);
       ov.name("vert.x-virtual-thread");
@@ -50,31 +51,99 @@ public class EventLoopScheduler implements Scheduler {
     }
   }
 
+  private static final int UNIT_IDLE = 0;
+  private static final int UNIT_QUEUED = 1;
+  private static final int UNIT_RUNNING = 2;
+
   private final ThreadFactory threadFactory;
-  private final LinkedList<Runnable> tasks = new LinkedList<>();
-  private boolean flag;
+  private final EventLoopRunQueue runQueue;
+  private final TaskLanes pending;
+  private final AtomicInteger unitState;
+  private final EventLoopRunQueue.Unit unit;
 
   public EventLoopScheduler(EventLoop carrier) {
-    this(command -> {
-      if (carrier.inEventLoop()) {
-        command.run();
-      } else {
-        carrier.execute(command);
-      }
-    });
+    this(new EventLoopRunQueue(carrier));
   }
 
   public EventLoopScheduler(Executor carrier) {
-    threadFactory = threadFactory(command -> {
-      if (flag) {
-        tasks.addLast(command);
-      } else {
-        tasks.addFirst(command);
+    this(new EventLoopRunQueue(carrier));
+  }
+
+  /**
+   * Create a scheduler carried by {@code runQueue}, the run queue can be shared by the schedulers of an event-loop.
+   */
+  public EventLoopScheduler(EventLoopRunQueue runQueue) {
+    this(runQueue, false);
+  }
+
+  /**
+   * Create a scheduler carried by {@code runQueue}.
+   *
+   * When {@code stealable} is {@code true}, the continuations of the scheduler threads are run as a single unit
+   * that another event-loop of the run queue {@link WorkStealingGroup} can steal, the unit is never run by two
+   * event-loops at the same time which preserves the serialization of the scheduler tasks. The unit continuations
+   * are ordered with the resume policy of the run queue and run within the budget of the run queue executing the unit.
+   */
+  public EventLoopScheduler(EventLoopRunQueue runQueue, boolean stealable) {
+    this(runQueue, stealable, null);
+  }
+
+  /**
+   * Create a scheduler carried by {@code runQueue} counting the threads it starts in {@code metrics} when not {@code null}.
+   */
+  public EventLoopScheduler(EventLoopRunQueue runQueue, boolean stealable, SchedulerMetrics metrics) {
+    this.runQueue = runQueue;
+    if (stealable) {
+      this.pending = runQueue.createLanes();
+      this.unitState = new AtomicInteger(UNIT_IDLE);
+      this.unit = this::runUnit;
+      this.threadFactory = metrics != null ? metrics.threadFactory(threadFactory(this::submit)) : threadFactory(this::submit);
+    } else {
+      this.pending = null;
+      this.unitState = null;
+      this.unit = null;
+      this.threadFactory = metrics != null ? metrics.threadFactory(threadFactory(runQueue)) : threadFactory(runQueue);
+    }
+  }
+
+  private void submit(Runnable continuation) {
+    if (EventLoopRunQueue.isStarting()) {
+      pending.addTask(continuation);
+    } else {
+      pending.addResumed(continuation);
+    }
+    if (unitState.get() == UNIT_IDLE && unitState.compareAndSet(UNIT_IDLE, UNIT_QUEUED)) {
+      runQueue.executeStealable(unit);
+    } else if (unitState.get() == UNIT_QUEUED) {
+      // Work is piling up while the unit waits for the event-loop
+      runQueue.signal();
+    }
+  }
+
+  private int runUnit(EventLoopRunQueue carrier, int maxTasks, long deadline) {
+    unitState.set(UNIT_RUNNING);
+    int count = 0;
+    while (count < maxTasks) {
+      Runnable continuation = pending.poll();
+      if (continuation == null) {
+        break;
       }
-      carrier.execute(() -> {
-        tasks.poll().run();
-      });
-    });
+      carrier.run(continuation);
+      count++;
+      if (deadline != 0L && System.nanoTime() - deadline >= 0) {
+        break;
+      }
+    }
+    unitState.set(UNIT_IDLE);
+    if (!pending.isEmpty() && unitState.compareAndSet(UNIT_IDLE, UNIT_QUEUED)) {
+      runQueue.executeStealable(unit);
+    }
+    return count;
+  }
+
+  @Override
+  public ResumePolicy resumePolicy() {
+    return runQueue.resumePolicy();
   }
 
   @Override
@@ -84,11 +153,6 @@ public class EventLoopScheduler implements Scheduler {
 
   public void execute(Runnable runnable) {
     Thread thread = threadFactory.newThread(runnable);
-    flag = true;
-    try {
-      thread.start();
-    } finally {
-      flag = false;
-    }
+    runQueue.start(thread);
   }
 }
@@ -0,0 +1,202 @@
+package io.vertx.await.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.impl.future.FutureInternal;
+import io.vertx.core.impl.future.Listener;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Awaits a number of successes among a list of futures with a single park of the awaiting thread.
+ *
+ * The fan-out succeeds as soon as {@code required} futures have succeeded and fails as soon as too many futures have
+ * failed for the fan-out to succeed. Once the outcome is known, the cancel hook is called with the index of each
+ * future still pending, without a hook the pending futures are left untouched.
+ */
+class FanOut<T> {
+
+  private final List<? extends Future<T>> futures;
+  private final int required;
+  private final boolean inputOrder;
+  private final Object[] results;
+  private final AtomicInteger successes = new AtomicInteger();
+  private final AtomicInteger written = new AtomicInteger();
+  private final AtomicInteger failures = new AtomicInteger();
+  private final AtomicBoolean decided = new AtomicBoolean();
+  private final IntConsumer cancel;
+  private Listener<List<T>> listener;
+
+  /**
+   * @param futures the futures
+   * @param required the number of successes required
+   * @param inputOrder whether the results are returned in the order of {@code futures} or in the order of completion
+   * @param cancel called with the index of each pending future once the outcome is known or {@code null}
+   */
+  FanOut(List<? extends Future<T>> futures, int required, boolean inputOrder, IntConsumer cancel) {
+    if (required < 0 || required > futures.size()) {
+      throw new IllegalArgumentException("Required successes must be between 0 and " + futures.size());
+    }
+    this.futures = futures;
+    this.required = required;
+    this.inputOrder = inputOrder;
+    this.cancel = cancel;
+    this.results = new Object[inputOrder ? futures.size() : required];
+  }
+
+  private final class Slot implements Listener<T> {
+
+    private final int index;
+
+    Slot(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public void onSuccess(T value) {
+      succeeded(index, value);
+    }
+
+    @Override
+    public void onFailure(Throwable cause) {
+      failed(cause);
+    }
+  }
+
+  /**
+   * @return whether all the futures are complete, the outcome is then known without listening
+   */
+  boolean isComplete() {
+    for (Future<T> future : futures) {
+      if (!future.isComplete()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compute the outcome of completed futures in the order of the list.
+   *
+   * @return the results or throws the failure
+   */
+  List<T> join() {
+    Outcome<List<T>> outcome = new Outcome<>();
+    this.listener = outcome;
+    if (required == 0) {
+      return Collections.emptyList();
+    }
+    for (int i = 0;i < futures.size();i++) {
+      Future<T> future = futures.get(i);
+      if (future.succeeded()) {
+        succeeded(i, future.result());
+      } else {
+        failed(future.cause());
+      }
+    }
+    if (outcome.failure != null) {
+      VirtualThreadContext.throwAsUnchecked(outcome.failure);
+    }
+    return outcome.result;
+  }
+
+  private static final class Outcome<T> implements Listener<T> {
+    private T result;
+    private Throwable failure;
+    @Override
+    public void onSuccess(T value) {
+      result = value;
+    }
+    @Override
+    public void onFailure(Throwable cause) {
+      failure = cause;
+    }
+  }
+
+  /**
+   * Listen to the futures, {@code listener} is completed when the outcome is known.
+   */
+  void listen(Listener<List<T>> listener) {
+    this.listener = listener;
+    if (required == 0) {
+      listener.onSuccess(Collections.emptyList());
+      return;
+    }
+    for (int i = 0;i < futures.size();i++) {
+      Future<T> future = futures.get(i);
+      Slot slot = new Slot(i);
+      if (future instanceof FutureInternal) {
+        ((FutureInternal<T>) future).addListener(slot);
+      } else {
+        future.onComplete(ar -> {
+          if (ar.succeeded()) {
+            slot.onSuccess(ar.result());
+          } else {
+            slot.onFailure(ar.cause());
+          }
+        });
+      }
+    }
+  }
+
+  private void succeeded(int index, T value) {
+    int rank = successes.getAndIncrement();
+    if (rank >= required) {
+      return;
+    }
+    results[inputOrder ? index : rank] = value;
+    // Complete once every required result has been written
+    if (written.incrementAndGet() == required && decide()) {
+      listener.onSuccess(result());
+    }
+  }
+
+  private void failed(Throwable cause) {
+    if (failures.incrementAndGet() == futures.size() - required + 1 && decide()) {
+      listener.onFailure(cause);
+    }
+  }
+
+  /**
+   * @return whether the outcome is decided by this call, the pending futures are then cancelled before the listener is
+   *         completed
+   */
+  private boolean decide() {
+    if (!decided.compareAndSet(false, true)) {
+      return false;
+    }
+    if (cancel != null) {
+      // A cancelled future completing its slot does not change the outcome
+      for (int i = 0;i < futures.size();i++) {
+        if (!futures.get(i).isComplete()) {
+          cancel.accept(i);
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Give up the fan-out, e.g. when the await times out, the pending futures are cancelled and the listener is not
+   * completed.
+   */
+  void abort() {
+    decide();
+  }
+
+  /**
+   * @return whether the fan-out has a cancel hook
+   */
+  boolean isCancellable() {
+    return cancel != null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<T> result() {
+    return (List<T>) Arrays.asList(results);
+  }
+}
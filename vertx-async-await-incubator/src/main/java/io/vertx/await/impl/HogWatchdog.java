@@ -0,0 +1,128 @@
+package io.vertx.await.impl;
+
+import io.vertx.core.Closeable;
+import io.vertx.core.Promise;
+import io.vertx.core.VertxException;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Watches the continuations run by event-loop run queues, a continuation running longer than the budget starves the
+ * event-loop I/O and is reported with the stack of its virtual thread.
+ *
+ * The Vert.x blocked thread checker only sees the event-loop thread and cannot tell which virtual thread is
+ * running, the watchdog finds the running thread among the threads of the watched contexts.
+ *
+ * Each continuation is timed on its own, including the continuations of a stealable unit run in a single batch.
+ *
+ * A context overrunning the budget repeatedly can be moved to a fallback scheduler: once the tasks already submitted
+ * have completed on the event-loop, the tasks of the context do not run on the event-loop anymore. The context runs
+ * a single thread at a time on either scheduler.
+ */
+public class HogWatchdog implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(HogWatchdog.class);
+
+  public static boolean isAvailable() {
+    return VirtualThreads.ok;
+  }
+
+  private final long budgetNanos;
+  private final int maxOverruns;
+  private final Supplier<Scheduler> fallback;
+  private final List<EventLoopRunQueue> runQueues = new CopyOnWriteArrayList<>();
+  private final ConcurrentMap<Thread, VirtualThreadContext> threads = new ConcurrentHashMap<>();
+  private final AtomicLong overruns = new AtomicLong();
+  private final ScheduledFuture<?> task;
+
+  /**
+   * @param budgetNanos the max time a continuation should run on the event-loop
+   * @param maxOverruns the number of overruns after which a context is moved to the fallback scheduler
+   * @param fallback the supplier of the scheduler a context is moved to, {@code null} to only report overruns
+   */
+  public HogWatchdog(long budgetNanos, int maxOverruns, Supplier<Scheduler> fallback) {
+    if (budgetNanos <= 0) {
+      throw new IllegalArgumentException("Budget must be > 0");
+    }
+    if (maxOverruns < 1) {
+      throw new IllegalArgumentException("Max overruns must be > 0");
+    }
+    this.budgetNanos = budgetNanos;
+    this.maxOverruns = maxOverruns;
+    this.fallback = fallback;
+    long period = Math.max(budgetNanos / 2, TimeUnit.MILLISECONDS.toNanos(1));
+    this.task = VirtualThreads.TIMER.scheduleAtFixedRate(this::check, period, period, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Watch the continuations run by {@code runQueue}.
+   */
+  public void watch(EventLoopRunQueue runQueue) {
+    runQueue.watch();
+    runQueues.add(runQueue);
+  }
+
+  /**
+   * @return the number of continuations that overran the budget
+   */
+  public long overruns() {
+    return overruns.get();
+  }
+
+  void register(Thread thread, VirtualThreadContext context) {
+    threads.put(thread, context);
+  }
+
+  void unregister(Thread thread) {
+    threads.remove(thread);
+  }
+
+  private void check() {
+    long now = System.nanoTime();
+    for (EventLoopRunQueue runQueue : runQueues) {
+      long start = runQueue.runStart();
+      if (start != 0L && now - start >= budgetNanos && start != runQueue.reportedStart) {
+        runQueue.reportedStart = start;
+        overruns.incrementAndGet();
+        report(runQueue.carrierThread(), now - start);
+      }
+    }
+  }
+
+  private void report(Thread carrier, long elapsedNanos) {
+    Map.Entry<Thread, VirtualThreadContext> running = null;
+    for (Map.Entry<Thread, VirtualThreadContext> entry : threads.entrySet()) {
+      if (VirtualThreads.carrierOf(entry.getKey()) == carrier) {
+        running = entry;
+        break;
+      }
+    }
+    Thread thread = running != null ? running.getKey() : carrier;
+    VertxException stack = new VertxException("Event-loop hog");
+    stack.setStackTrace(thread.getStackTrace());
+    log.warn("Thread " + thread + " has been running on " + carrier + " for " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) +
+      " ms, time limit is " + TimeUnit.NANOSECONDS.toMillis(budgetNanos) + " ms", stack);
+    if (running != null && fallback != null) {
+      VirtualThreadContext context = running.getValue();
+      if (context.overrun() >= maxOverruns && context.migrate(fallback)) {
+        log.warn("Moved the context of thread " + thread + " to a fallback scheduler");
+      }
+    }
+  }
+
+  @Override
+  public void close(Promise<Void> completion) {
+    task.cancel(false);
+    completion.complete();
+  }
+}
@@ -0,0 +1,100 @@
+package io.vertx.await.impl;
+
+import io.vertx.core.Future;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A bounded map of futures owned by a single context, the entries are evicted in least recently used order and expire
+ * after a time to live.
+ *
+ * A miss stores the future of the loader so the lookups of the same key while it loads share a single load.
+ *
+ * This class is not thread safe, it relies on the context running a single thread at a time.
+ */
+public class LocalCache<K, V> {
+
+  private static final class Entry<V> {
+    final Future<V> future;
+    final long expires;
+    Entry(Future<V> future, long expires) {
+      this.future = future;
+      this.expires = expires;
+    }
+  }
+
+  private final long ttlNanos;
+  private final LinkedHashMap<K, Entry<V>> entries;
+
+  /**
+   * @param maxSize the max number of entries
+   * @param ttlNanos the time to live of an entry in nanoseconds, {@code 0} means entries do not expire
+   */
+  public LocalCache(int maxSize, long ttlNanos) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Max size must be > 0");
+    }
+    if (ttlNanos < 0) {
+      throw new IllegalArgumentException("TTL must be >= 0");
+    }
+    this.ttlNanos = ttlNanos;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * @return the future of {@code key} when present and not expired, otherwise {@code null}
+   */
+  public Future<V> getIfPresent(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (ttlNanos > 0 && System.nanoTime() - entry.expires >= 0) {
+      entries.remove(key);
+      return null;
+    }
+    return entry.future;
+  }
+
+  /**
+   * @return the future of {@code key}, loaded by {@code loader} when absent or expired
+   */
+  public Future<V> get(K key, Function<? super K, Future<V>> loader) {
+    Future<V> future = getIfPresent(key);
+    if (future == null) {
+      future = loader.apply(key);
+      entries.put(key, new Entry<>(future, ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0L));
+    }
+    return future;
+  }
+
+  /**
+   * Remove the entry of {@code key} when its future is {@code future}, a failed load is removed this way without
+   * removing a load started since.
+   */
+  public void remove(K key, Future<V> future) {
+    Entry<V> entry = entries.get(key);
+    if (entry != null && entry.future == future) {
+      entries.remove(key);
+    }
+  }
+
+  public void remove(K key) {
+    entries.remove(key);
+  }
+
+  public void clear() {
+    entries.clear();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+}
@@ -0,0 +1,77 @@
+package io.vertx.await.impl;
+
+import io.vertx.core.VertxException;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Detects awaits that pin the carrier of the virtual thread, e.g. awaiting while holding a monitor or from a native
+ * frame. A pinned await blocks its carrier, with {@link EventLoopScheduler} this stalls the whole event-loop.
+ *
+ * An await still parked after the threshold is checked, when the thread is pinned the await is reported with the
+ * stack of the thread and the context can be moved to a fallback scheduler: once the tasks already submitted have
+ * completed on their carrier, the tasks of the context do not run on the stalled carrier anymore. The context runs
+ * a single thread at a time on either scheduler, a pinned thread awaiting a task of its own context is not rescued.
+ *
+ * The pinned state is read from the {@code java.lang.VirtualThread} internals, see {@link VirtualThreads}.
+ */
+public class PinningDetector {
+
+  private static final Logger log = LoggerFactory.getLogger(PinningDetector.class);
+
+  public static boolean isAvailable() {
+    return VirtualThreads.ok;
+  }
+
+  private final long thresholdNanos;
+  private final Supplier<Scheduler> fallback;
+  private final AtomicLong pinnedAwaits = new AtomicLong();
+
+  /**
+   * @param thresholdNanos the time an await must be parked before being checked
+   * @param fallback the supplier of the scheduler a context is moved to when it pins its carrier, {@code null} to
+   *                 only report pinned awaits
+   */
+  public PinningDetector(long thresholdNanos, Supplier<Scheduler> fallback) {
+    if (thresholdNanos <= 0) {
+      throw new IllegalArgumentException("Threshold must be > 0");
+    }
+    this.thresholdNanos = thresholdNanos;
+    this.fallback = fallback;
+  }
+
+  /**
+   * @return the number of pinned awaits detected
+   */
+  public long pinnedAwaits() {
+    return pinnedAwaits.get();
+  }
+
+  /**
+   * Watch the await of the current thread.
+   *
+   * @return the watch to cancel when the await is resumed
+   */
+  ScheduledFuture<?> watch(VirtualThreadContext context) {
+    Thread thread = Thread.currentThread();
+    return VirtualThreads.TIMER.schedule(() -> check(context, thread), thresholdNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private void check(VirtualThreadContext context, Thread thread) {
+    if (VirtualThreads.isPinned(thread)) {
+      pinnedAwaits.incrementAndGet();
+      VertxException stack = new VertxException("Pinned await");
+      stack.setStackTrace(thread.getStackTrace());
+      log.warn("Thread " + thread + " has been awaiting for " + TimeUnit.NANOSECONDS.toMillis(thresholdNanos) +
+        " ms while pinned to its carrier", stack);
+      if (fallback != null && context.migrate(fallback)) {
+        log.warn("Moved the context of thread " + thread + " to a fallback scheduler");
+      }
+    }
+  }
+}
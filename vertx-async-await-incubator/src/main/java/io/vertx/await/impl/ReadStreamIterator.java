@@ -0,0 +1,170 @@
+package io.vertx.await.impl;
+
+import io.vertx.await.AsyncIterator;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * A blocking iterator over a {@link ReadStream} for virtual thread contexts.
+ *
+ * The items are buffered up to the prefetch size, the stream is then paused and resumed once the consumer has drained
+ * half of the buffer. A consumer waiting for an item releases its scheduler until the stream emits, ends or fails, a
+ * stream failure is thrown after the buffered items have been consumed.
+ *
+ * {@link #close} stops the iteration before the end of the stream, the items emitted afterwards are discarded.
+ */
+public class ReadStreamIterator<T> implements AsyncIterator<T> {
+
+  private final VirtualThreadContext context;
+  private final ReadStream<T> stream;
+  private final int prefetch;
+  private final int lowWatermark;
+  private final ArrayDeque<T> buffer = new ArrayDeque<>();
+  private BiConsumer<Void, Throwable> waiter;
+  private boolean paused;
+  private boolean ended;
+  private boolean closed;
+  private Throwable failure;
+
+  /**
+   * @param context the context of the consuming thread
+   * @param stream the stream to iterate
+   * @param prefetch the max number of items buffered before the stream is paused
+   */
+  public ReadStreamIterator(VirtualThreadContext context, ReadStream<T> stream, int prefetch) {
+    if (prefetch < 1) {
+      throw new IllegalArgumentException("Prefetch must be > 0");
+    }
+    this.context = context;
+    this.stream = stream;
+    this.prefetch = prefetch;
+    this.lowWatermark = prefetch / 2;
+    stream.exceptionHandler(this::handleFailure);
+    stream.endHandler(v -> handleEnd());
+    stream.handler(this::handleItem);
+  }
+
+  private void handleItem(T item) {
+    BiConsumer<Void, Throwable> w;
+    boolean pause = false;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      buffer.add(item);
+      if (!paused && buffer.size() >= prefetch) {
+        paused = pause = true;
+      }
+      w = waiter;
+      waiter = null;
+    }
+    if (pause) {
+      stream.pause();
+    }
+    if (w != null) {
+      w.accept(null, null);
+    }
+  }
+
+  private void handleEnd() {
+    BiConsumer<Void, Throwable> w;
+    synchronized (this) {
+      ended = true;
+      w = waiter;
+      waiter = null;
+    }
+    if (w != null) {
+      w.accept(null, null);
+    }
+  }
+
+  private void handleFailure(Throwable cause) {
+    synchronized (this) {
+      if (failure == null) {
+        failure = cause;
+      }
+    }
+    handleEnd();
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (true) {
+      synchronized (this) {
+        if (!buffer.isEmpty()) {
+          return true;
+        }
+        if (failure != null && !closed) {
+          VirtualThreadContext.throwAsUnchecked(failure);
+        }
+        if (ended || closed) {
+          return false;
+        }
+      }
+      context.<Void>suspend(resume -> {
+        boolean ready;
+        synchronized (this) {
+          // The stream might have emitted while the thread was suspending
+          ready = !buffer.isEmpty() || ended || closed;
+          if (!ready) {
+            waiter = resume;
+          }
+        }
+        if (ready) {
+          resume.accept(null, null);
+        }
+      });
+    }
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    T item;
+    boolean resume = false;
+    synchronized (this) {
+      item = buffer.poll();
+      if (paused && buffer.size() <= lowWatermark) {
+        paused = false;
+        resume = true;
+      }
+    }
+    if (resume) {
+      stream.resume();
+    }
+    return item;
+  }
+
+  @Override
+  public synchronized int buffered() {
+    return buffer.size();
+  }
+
+  @Override
+  public void close() {
+    BiConsumer<Void, Throwable> w;
+    boolean resume;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      buffer.clear();
+      resume = paused;
+      paused = false;
+      w = waiter;
+      waiter = null;
+    }
+    if (resume) {
+      stream.resume();
+    }
+    if (w != null) {
+      w.accept(null, null);
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package io.vertx.await.impl;
 
+import io.vertx.await.ResumePolicy;
+
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
@@ -17,4 +19,16 @@ public interface Scheduler extends Executor {
    */
   Consumer<Runnable> unschedule();
 
+  /**
+   * @return how continuations scheduled by {@link #unschedule()} are ordered with respect to the queued tasks
+   */
+  ResumePolicy resumePolicy();
+
+  /**
+   * Execute the first task of a new context, unlike {@link #execute(Runnable)} the scheduler may run it inline on the
+   * caller stack when no other work is pending.
+   */
+  default void start(Runnable command) {
+    execute(command);
+  }
 }
@@ -0,0 +1,140 @@
+package io.vertx.await.impl;
+
+import io.vertx.await.AsyncMetrics;
+import io.vertx.core.Closeable;
+import io.vertx.core.Promise;
+import io.vertx.core.spi.metrics.PoolMetrics;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the activity of the schedulers and virtual thread contexts of an {@link io.vertx.await.Async} instance.
+ *
+ * Counters are striped so recording from many threads does not contend, the task lifecycle is also reported to
+ * Vert.x {@link PoolMetrics} when a metrics backend is configured, the backend then records the queue depth
+ * and the time between {@code execute} and the task run.
+ *
+ * The pool metrics are closed when Vert.x closes.
+ */
+public class SchedulerMetrics implements AsyncMetrics, Closeable {
+
+  private final PoolMetrics<Object> poolMetrics;
+  private final LongAdder submitted = new LongAdder();
+  private final LongAdder begun = new LongAdder();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder threadsStarted = new LongAdder();
+  private final LongAdder awaitsInFlight = new LongAdder();
+  private final LongAdder[] queueDelay = new LongAdder[QUEUE_DELAY_BUCKETS];
+
+  /**
+   * @param poolMetrics the Vert.x pool metrics to report to or {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public SchedulerMetrics(PoolMetrics<?> poolMetrics) {
+    this.poolMetrics = (PoolMetrics<Object>) poolMetrics;
+    for (int i = 0;i < queueDelay.length;i++) {
+      queueDelay[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * A task submitted to a scheduler, carries the pool metric and the submission time.
+   */
+  static final class Task {
+    private final long submittedNanos = System.nanoTime();
+    private Object metric;
+  }
+
+  Object submitted() {
+    submitted.increment();
+    Task task = new Task();
+    if (poolMetrics != null) {
+      task.metric = poolMetrics.submitted();
+    }
+    return task;
+  }
+
+  void rejected(Object metric) {
+    submitted.decrement();
+    if (poolMetrics != null) {
+      poolMetrics.rejected(((Task) metric).metric);
+    }
+  }
+
+  Object begin(Object metric) {
+    Task task = (Task) metric;
+    long delay = System.nanoTime() - task.submittedNanos;
+    queueDelay[QUEUE_DELAY_BUCKETS - Long.numberOfLeadingZeros(Math.max(delay, 0L))].increment();
+    begun.increment();
+    if (poolMetrics != null) {
+      task.metric = poolMetrics.begin(task.metric);
+    }
+    return task;
+  }
+
+  void end(Object metric, boolean succeeded) {
+    completed.increment();
+    if (poolMetrics != null) {
+      poolMetrics.end(((Task) metric).metric, succeeded);
+    }
+  }
+
+  void awaitBegin() {
+    awaitsInFlight.increment();
+  }
+
+  void awaitEnd() {
+    awaitsInFlight.decrement();
+  }
+
+  /**
+   * @return a thread factory counting the threads created by {@code factory}
+   */
+  public ThreadFactory threadFactory(ThreadFactory factory) {
+    return runnable -> {
+      threadsStarted.increment();
+      return factory.newThread(runnable);
+    };
+  }
+
+  @Override
+  public long queueDepth() {
+    return submitted.sum() - begun.sum();
+  }
+
+  @Override
+  public long tasksCompleted() {
+    return completed.sum();
+  }
+
+  @Override
+  public long threadsStarted() {
+    return threadsStarted.sum();
+  }
+
+  @Override
+  public long awaitsInFlight() {
+    return awaitsInFlight.sum();
+  }
+
+  @Override
+  public long[] queueDelayHistogram() {
+    long[] snapshot = new long[QUEUE_DELAY_BUCKETS];
+    for (int i = 0;i < snapshot.length;i++) {
+      snapshot[i] = queueDelay[i].sum();
+    }
+    return snapshot;
+  }
+
+  /**
+   * Close the Vert.x pool metrics.
+   */
+  @Override
+  public void close(Promise<Void> completion) {
+    if (poolMetrics != null) {
+      poolMetrics.close();
+    }
+    completion.complete();
+  }
+}
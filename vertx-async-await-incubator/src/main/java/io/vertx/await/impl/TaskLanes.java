@@ -0,0 +1,100 @@
+package io.vertx.await.impl;
+
+import io.netty.util.internal.PlatformDependent;
+import io.vertx.await.ResumePolicy;
+
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * The tasks and resumed continuations of a scheduler ordered according to a {@link ResumePolicy}.
+ *
+ * Tasks and continuations can be added from any thread, the lanes are polled by a single consumer at a time.
+ */
+class TaskLanes {
+
+  private final ResumePolicy policy;
+  private final int weight;
+  private final Queue<Runnable> tasks = PlatformDependent.newMpscQueue();
+  private final Deque<Runnable> stack;
+  private final Queue<Runnable> resumed;
+  private int resumedInARow;
+
+  TaskLanes(ResumePolicy policy, int weight) {
+    if (weight < 1) {
+      throw new IllegalArgumentException("Resume weight must be > 0");
+    }
+    this.policy = policy;
+    this.weight = weight;
+    switch (policy) {
+      case LIFO:
+        stack = new ConcurrentLinkedDeque<>();
+        resumed = null;
+        break;
+      case WEIGHTED:
+        stack = null;
+        resumed = PlatformDependent.newMpscQueue();
+        break;
+      default:
+        stack = null;
+        resumed = null;
+        break;
+    }
+  }
+
+  ResumePolicy policy() {
+    return policy;
+  }
+
+  void addTask(Runnable task) {
+    tasks.add(task);
+  }
+
+  void addResumed(Runnable continuation) {
+    switch (policy) {
+      case LIFO:
+        stack.addFirst(continuation);
+        break;
+      case WEIGHTED:
+        resumed.add(continuation);
+        break;
+      default:
+        tasks.add(continuation);
+        break;
+    }
+  }
+
+  boolean isEmpty() {
+    switch (policy) {
+      case LIFO:
+        return stack.isEmpty() && tasks.isEmpty();
+      case WEIGHTED:
+        return resumed.isEmpty() && tasks.isEmpty();
+      default:
+        return tasks.isEmpty();
+    }
+  }
+
+  Runnable poll() {
+    Runnable next;
+    switch (policy) {
+      case LIFO:
+        next = stack.pollFirst();
+        return next != null ? next : tasks.poll();
+      case WEIGHTED:
+        if (resumedInARow < weight) {
+          next = resumed.poll();
+          if (next != null) {
+            resumedInARow++;
+            return next;
+          }
+        }
+        resumedInARow = 0;
+        next = tasks.poll();
+        return next != null ? next : resumed.poll();
+      default:
+        return tasks.poll();
+    }
+  }
+}
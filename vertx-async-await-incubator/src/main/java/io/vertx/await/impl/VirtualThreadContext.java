@@ -2,7 +2,9 @@ package io.vertx.await.impl;
 
 import io.netty.channel.EventLoop;
 import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.impl.CloseFuture;
 import io.vertx.core.impl.ContextBase;
@@ -11,46 +13,131 @@ import io.vertx.core.impl.Deployment;
 import io.vertx.core.impl.VertxImpl;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.impl.WorkerPool;
+import io.vertx.core.impl.future.FutureInternal;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
 /**
  * A fork a WorkerContext with a couple of changes.
  */
 public class VirtualThreadContext extends ContextBase {
 
+  // The minimal stages throw on the completion state methods, they are awaited through their callback
+  private static final Class<?> MINIMAL_STAGE = new CompletableFuture<>().minimalCompletionStage().getClass();
+
   public static VirtualThreadContext create(Vertx vertx, EventLoop nettyEventLoop, Scheduler scheduler) {
+    return create(vertx, nettyEventLoop, scheduler, null);
+  }
+
+  /**
+   * Create a context recording its activity to {@code metrics}, when {@code metrics} is {@code null} nothing is recorded.
+   */
+  public static VirtualThreadContext create(Vertx vertx, EventLoop nettyEventLoop, Scheduler scheduler, SchedulerMetrics metrics) {
+    return create(vertx, nettyEventLoop, scheduler, metrics, null);
+  }
+
+  /**
+   * Create a context whose pinned awaits are reported by {@code detector}, when {@code detector} is {@code null} nothing
+   * is detected.
+   */
+  public static VirtualThreadContext create(Vertx vertx, EventLoop nettyEventLoop, Scheduler scheduler, SchedulerMetrics metrics,
+                                            PinningDetector detector) {
+    return create(vertx, nettyEventLoop, scheduler, metrics, detector, null);
+  }
+
+  /**
+   * Create a context whose threads running on an event-loop are watched by {@code watchdog}, when {@code watchdog} is
+   * {@code null} nothing is watched.
+   */
+  public static VirtualThreadContext create(Vertx vertx, EventLoop nettyEventLoop, Scheduler scheduler, SchedulerMetrics metrics,
+                                            PinningDetector detector, HogWatchdog watchdog) {
+    return create(vertx, nettyEventLoop, scheduler, metrics, detector, watchdog, null);
+  }
+
+  /**
+   * Create a context whose tasks and awaits are counted in the {@code load} of its event-loop, when {@code load} is
+   * {@code null} nothing is counted.
+   */
+  public static VirtualThreadContext create(Vertx vertx, EventLoop nettyEventLoop, Scheduler scheduler, SchedulerMetrics metrics,
+                                            PinningDetector detector, HogWatchdog watchdog, EventLoopLoad load) {
     VertxImpl _vertx = (VertxImpl) vertx;
-    return new VirtualThreadContext(_vertx, nettyEventLoop, _vertx.getInternalWorkerPool(), _vertx.getWorkerPool(), scheduler, null, _vertx.closeFuture(), null);
+    Placement placement = new Placement(scheduler, detector != null || watchdog != null);
+    return new VirtualThreadContext(_vertx, nettyEventLoop, _vertx.getInternalWorkerPool(), _vertx.getWorkerPool(), placement, metrics, detector, watchdog, load, null, null, _vertx.closeFuture(), null);
   }
 
-  private final Scheduler scheduler;
-  private final ThreadLocal<Boolean> inThread = new ThreadLocal<>();
+  private final VirtualThreadContext root;
+  private final Placement placement;
+  private final SchedulerMetrics metrics;
+  private final PinningDetector detector;
+  private final HogWatchdog watchdog;
+  private final EventLoopLoad load;
+  private final AtomicInteger overruns = new AtomicInteger();
+  private volatile long deadline;
+  private volatile long yieldInterval;
+  // The thread running a task of this context on the initial scheduler and on the fallback scheduler once migrated,
+  // a scheduler runs one thread of the context at a time so the current thread is compared instead of a thread local
+  private final Runner runner;
+  private volatile Runner fallbackRunner;
+  // The worker threads running a task of this context inline
+  private final Set<Thread> workerThreads = ConcurrentHashMap.newKeySet();
 
   VirtualThreadContext(VertxInternal vertx,
                        EventLoop eventLoop,
                        WorkerPool internalBlockingPool,
                        WorkerPool workerPool,
-                       Scheduler scheduler,
+                       Placement placement,
+                       SchedulerMetrics metrics,
+                       PinningDetector detector,
+                       HogWatchdog watchdog,
+                       EventLoopLoad load,
+                       VirtualThreadContext root,
                        Deployment deployment,
                        CloseFuture closeFuture,
                        ClassLoader tccl) {
     super(vertx, eventLoop, internalBlockingPool, workerPool, deployment, closeFuture, tccl);
 
-    this.scheduler = scheduler;
+    this.root = root != null ? root : this;
+    this.placement = placement;
+    this.runner = new Runner(placement.scheduler);
+    this.metrics = metrics;
+    this.detector = detector;
+    this.watchdog = watchdog;
+    this.load = load;
   }
 
   @Override
   protected void runOnContext(ContextInternal ctx, Handler<Void> action) {
     try {
-      run(ctx, null, action);
+      run(ctx, null, action, false);
+    } catch (RejectedExecutionException ignore) {
+      // Pool is already shut down
+    }
+  }
+
+  /**
+   * Like {@link #runOnContext(Handler)} for the first task of a new context, the scheduler may start it inline on the
+   * caller stack, see {@link Scheduler#start(Runnable)}.
+   */
+  public void start(Handler<Void> action) {
+    try {
+      run(this, null, action, true);
     } catch (RejectedExecutionException ignore) {
       // Pool is already shut down
     }
@@ -76,7 +163,21 @@ public class VirtualThreadContext extends ContextBase {
 
   @Override
   public Executor executor() {
-    return scheduler;
+    return task -> submit(task, false);
+  }
+
+  /**
+   * @return the context this context was duplicated from or this context when it is not a duplicate
+   */
+  public VirtualThreadContext root() {
+    return root;
+  }
+
+  /**
+   * @return the scheduler running the tasks of this context
+   */
+  public Scheduler scheduler() {
+    return placement.scheduler;
   }
 
   @Override
@@ -94,101 +195,536 @@ public class VirtualThreadContext extends ContextBase {
     return false;
   }
 
-  private <T> void run(ContextInternal ctx, T value, Handler<T> task) {
+  private <T> void run(ContextInternal ctx, T value, Handler<T> task, boolean start) {
     Objects.requireNonNull(task, "Task handler must not be null");
-    scheduler.execute(() -> {
-      inThread.set(true);
-      try {
-        ctx.dispatch(value, task);
-      } finally {
-        inThread.remove();
-      }
-    });
+    submit(() -> ctx.dispatch(value, task), start);
   }
 
   private <T> void execute2(T argument, Handler<T> task) {
     if (Context.isOnWorkerThread()) {
-      inThread.set(true);
+      // Several worker threads can run tasks inline at the same time, they are tracked apart from the scheduler runners
+      Thread th = Thread.currentThread();
+      boolean added = workerThreads.add(th);
       try {
         task.handle(argument);
       } finally {
-        inThread.remove();
+        if (added) {
+          workerThreads.remove(th);
+        }
       }
     } else {
-      scheduler.execute(() -> {
-        inThread.set(true);
+      submit(() -> task.handle(argument), false);
+    }
+  }
+
+  /**
+   * The scheduler of a context and of its duplicates.
+   *
+   * When the context can be migrated, the tasks submitted to the scheduler and not yet completed are counted, the
+   * migration redirects the tasks to the fallback scheduler once no thread of the context runs or is suspended on the
+   * current scheduler, so the threads of the context never overlap.
+   */
+  private static final class Placement {
+    final boolean migratable;
+    volatile Scheduler scheduler;
+    // Guarded by this
+    private Scheduler fallback;
+    private int active;
+    private boolean migrated;
+    Placement(Scheduler scheduler, boolean migratable) {
+      this.scheduler = scheduler;
+      this.migratable = migratable;
+    }
+
+    /**
+     * @return the scheduler of a submitted task, the task must be ended with {@link #end()}
+     */
+    Scheduler begin() {
+      if (!migratable) {
+        return scheduler;
+      }
+      synchronized (this) {
+        active++;
+        return scheduler;
+      }
+    }
+
+    void end() {
+      if (migratable) {
+        synchronized (this) {
+          if (--active == 0 && fallback != null) {
+            scheduler = fallback;
+            fallback = null;
+          }
+        }
+      }
+    }
+
+    synchronized boolean migrate(Supplier<Scheduler> supplier) {
+      if (!migratable || migrated || !(scheduler instanceof EventLoopScheduler)) {
+        return false;
+      }
+      migrated = true;
+      Scheduler s = supplier.get();
+      if (active == 0) {
+        scheduler = s;
+      } else {
+        fallback = s;
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Submit a task of the context to its scheduler.
+   *
+   * @param start whether the task is started with {@link Scheduler#start(Runnable)}
+   */
+  private void submit(Runnable task, boolean start) {
+    Scheduler s = placement.begin();
+    try {
+      schedule(s, start, () -> {
+        enter(s);
         try {
-          task.handle(argument);
+          task.run();
         } finally {
-          inThread.remove();
+          exit(s);
+          placement.end();
         }
       });
+    } catch (RejectedExecutionException e) {
+      placement.end();
+      throw e;
+    }
+  }
+
+  /**
+   * The thread running a task of the context on a scheduler.
+   */
+  private static final class Runner {
+    final Scheduler scheduler;
+    volatile Thread thread;
+    // When the thread got the scheduler, only maintained when a yield interval is set
+    long since;
+    Runner(Scheduler scheduler) {
+      this.scheduler = scheduler;
+    }
+  }
+
+  private Runner runner(Scheduler s) {
+    if (s == runner.scheduler) {
+      return runner;
+    }
+    Runner r = fallbackRunner;
+    if (r == null || r.scheduler != s) {
+      // The context is migrated once, so there is a single fallback scheduler
+      r = new Runner(s);
+      fallbackRunner = r;
+    }
+    return r;
+  }
+
+  /**
+   * @return the runner of the current thread or {@code null} when the current thread does not run a task of the context
+   */
+  private Runner currentRunner() {
+    Thread th = Thread.currentThread();
+    if (runner.thread == th) {
+      return runner;
+    }
+    Runner r = fallbackRunner;
+    return r != null && r.thread == th ? r : null;
+  }
+
+  private void enter(Scheduler s) {
+    acquired(runner(s));
+    if (watchdog != null) {
+      watchdog.register(Thread.currentThread(), this);
+    }
+  }
+
+  private void exit(Scheduler s) {
+    if (watchdog != null) {
+      watchdog.unregister(Thread.currentThread());
+    }
+    runner(s).thread = null;
+  }
+
+  private void schedule(Scheduler scheduler, boolean start, Runnable task) {
+    if (metrics == null && load == null) {
+      execute(scheduler, start, task);
+      return;
+    }
+    Object metric = metrics != null ? metrics.submitted() : null;
+    if (load != null) {
+      load.submitted();
+    }
+    try {
+      execute(scheduler, start, () -> {
+        Object m = metrics != null ? metrics.begin(metric) : null;
+        boolean succeeded = false;
+        try {
+          task.run();
+          succeeded = true;
+        } finally {
+          if (metrics != null) {
+            metrics.end(m, succeeded);
+          }
+          if (load != null) {
+            load.ended();
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      if (metrics != null) {
+        metrics.rejected(metric);
+      }
+      if (load != null) {
+        load.ended();
+      }
+      throw e;
+    }
+  }
+  private static void execute(Scheduler scheduler, boolean start, Runnable task) {
+    if (start) {
+      scheduler.start(task);
+    } else {
+      scheduler.execute(task);
+    }
+  }
+
+
+  /**
+   * @return the scheduler running the current thread
+   */
+  private Scheduler awaitBegin() {
+    Runner r = currentRunner();
+    Scheduler s;
+    if (r != null) {
+      r.thread = null;
+      s = r.scheduler;
+    } else {
+      s = placement.scheduler;
+    }
+    if (metrics != null) {
+      metrics.awaitBegin();
+    }
+    if (load != null) {
+      load.awaitBegin();
+    }
+    return s;
+  }
+
+  private <T> T park(Scheduler s, Awaiter<T> awaiter, ScheduledFuture<?> timeout) {
+    ScheduledFuture<?> watch = detector != null ? detector.watch(this) : null;
+    try {
+      return awaiter.await();
+    } finally {
+      if (timeout != null) {
+        timeout.cancel(false);
+      }
+      if (watch != null) {
+        watch.cancel(false);
+      }
+      if (metrics != null) {
+        metrics.awaitEnd();
+      }
+      if (load != null) {
+        load.awaitEnd();
+      }
+      acquired(runner(s));
     }
   }
 
+  private void acquired(Runner r) {
+    r.thread = Thread.currentThread();
+    if (yieldInterval > 0L) {
+      r.since = System.nanoTime();
+    }
+  }
+
+  /**
+   * Move the context to a scheduler of {@code fallback} when its tasks are carried by an event-loop. The tasks run on
+   * the fallback scheduler once the tasks already submitted have completed, so a thread of the context never runs
+   * at the same time on both schedulers.
+   *
+   * @return whether the context will be moved
+   */
+  boolean migrate(Supplier<Scheduler> fallback) {
+    return placement.migrate(fallback);
+  }
+
+  /**
+   * Record that a thread of this context overran the continuation time budget.
+   *
+   * @return the number of overruns of this context
+   */
+  int overrun() {
+    return overruns.incrementAndGet();
+  }
+
   @Override
   public boolean inThread() {
-    return inThread.get() == Boolean.TRUE;
+    return currentRunner() != null || (!workerThreads.isEmpty() && workerThreads.contains(Thread.currentThread()));
   }
 
   @Override
   public ContextInternal duplicate() {
     // This is fine as we are running on event-loop
-    return create(owner(), nettyEventLoop(), scheduler);
+    // The duplicate shares the placement, so the context and its duplicates are migrated together
+    VertxImpl _vertx = (VertxImpl) owner();
+    VirtualThreadContext duplicate = new VirtualThreadContext(_vertx, nettyEventLoop(), _vertx.getInternalWorkerPool(), _vertx.getWorkerPool(),
+      placement, metrics, detector, watchdog, load, root, null, _vertx.closeFuture(), null);
+    duplicate.yieldInterval = yieldInterval;
+    return duplicate;
   }
 
+  /**
+   * Acquire {@code lock}, the current thread releases its scheduler while blocked on the lock.
+   *
+   * @throws IllegalStateException when the current thread is not virtual, e.g. a continuation carried by the event-loop
+   */
   public void lock(Lock lock) {
-    inThread.remove();
-    Consumer<Runnable> cont = scheduler.unschedule();
-    CompletableFuture<Void> latch = new CompletableFuture<>();
+    if (!Thread.currentThread().isVirtual()) {
+      throw new IllegalStateException("A blocking lock cannot be acquired from a platform thread, use AsyncLock");
+    }
+    Scheduler s = awaitBegin();
+    Awaiter<Void> awaiter = new Awaiter<>(s.unschedule());
     try {
       lock.lock();
-      cont.accept(() -> latch.complete(null));
+      awaiter.onSuccess(null);
     } catch(RuntimeException e) {
-      cont.accept(() -> latch.completeExceptionally(e));
+      awaiter.onFailure(e);
     }
-    try {
-      latch.get();
-    } catch (InterruptedException e) {
-      throw new RuntimeException(e);
-    } catch (ExecutionException e) {
-      throwAsUnchecked(e);
-    } finally {
-      inThread.set(true);
+    park(s, awaiter, null);
+  }
+
+  /**
+   * Set the deadline of the awaits of this context, an await exceeding the deadline fails with a
+   * {@link TimeoutException}.
+   *
+   * @param timeoutNanos the time until the deadline or {@code -1} to remove the deadline
+   */
+  public void deadline(long timeoutNanos) {
+    if (timeoutNanos < 0) {
+      deadline = 0L;
+    } else {
+      long d = System.nanoTime() + timeoutNanos;
+      deadline = d == 0L ? 1L : d;
     }
   }
 
-  public <T> T await(CompletionStage<T> fut) {
-    inThread.remove();
-    Consumer<Runnable> cont = scheduler.unschedule();
-    CompletableFuture<T> latch = new CompletableFuture<>();
-    fut.whenComplete((v, err) -> {
-      cont.accept(() -> {
-        doComplete(v, err, latch);
-      });
-    });
-    try {
-      return latch.get();
-    } catch (InterruptedException e) {
-      throw new RuntimeException(e);
-    } catch (ExecutionException e) {
-      throwAsUnchecked(e.getCause());
+  /**
+   * @return the time until the deadline of this context or {@link Long#MAX_VALUE} when there is no deadline
+   */
+  private long deadlineTimeout() {
+    long d = deadline;
+    return d == 0L ? Long.MAX_VALUE : d - System.nanoTime();
+  }
+
+  /**
+   * Fail {@code awaiter} with a {@link TimeoutException} after {@code timeoutNanos}, the exception is first passed to
+   * {@code onTimeout} when not {@code null} so the awaited operation is failed before the thread resumes.
+   *
+   * @return the timeout to cancel when the await is resumed or {@code null} when there is no timeout
+   */
+  private ScheduledFuture<?> timeout(Awaiter<?> awaiter, long timeoutNanos, Consumer<? super TimeoutException> onTimeout) {
+    if (timeoutNanos == Long.MAX_VALUE) {
       return null;
-    } finally {
-      inThread.set(true);
     }
+    return nettyEventLoop().schedule(() -> {
+      TimeoutException timeout = new TimeoutException("Timeout awaiting the result");
+      if (onTimeout != null) {
+        onTimeout.accept(timeout);
+      }
+      awaiter.onFailure(timeout);
+    }, Math.max(timeoutNanos, 0L), TimeUnit.NANOSECONDS);
+  }
+
+  public <T> T await(Future<T> fut) {
+    return awaitFuture(fut, deadlineTimeout(), null);
+  }
+
+  /**
+   * Await {@code fut} at most {@code timeout}, when the timeout fires the await fails with a {@link TimeoutException},
+   * {@code fut} is not failed.
+   */
+  public <T> T await(Future<T> fut, long timeout, TimeUnit unit) {
+    return awaitFuture(fut, Math.min(unit.toNanos(timeout), deadlineTimeout()), null);
+  }
+
+  /**
+   * Await the future of {@code promise}, when the deadline of this context expires {@code promise} is failed with the
+   * {@link TimeoutException} thrown by the await.
+   */
+  public <T> T await(Promise<T> promise) {
+    return awaitFuture(promise.future(), deadlineTimeout(), promise::tryFail);
+  }
+
+  /**
+   * Like {@link #await(Promise)}, {@code promise} is also failed when {@code timeout} fires.
+   */
+  public <T> T await(Promise<T> promise, long timeout, TimeUnit unit) {
+    return awaitFuture(promise.future(), Math.min(unit.toNanos(timeout), deadlineTimeout()), promise::tryFail);
   }
 
-  private static <T> void doComplete(T val, Throwable err, CompletableFuture<T> fut) {
-    if (err == null) {
-      fut.complete(val);
+  private <T> T awaitFuture(Future<T> fut, long timeoutNanos, Consumer<? super TimeoutException> onTimeout) {
+    if (fut.isComplete()) {
+      // Fast path, the thread keeps the permit
+      if (fut.succeeded()) {
+        return fut.result();
+      }
+      throwAsUnchecked(fut.cause());
+    }
+    Scheduler s = awaitBegin();
+    Awaiter<T> awaiter = new Awaiter<>(s.unschedule());
+    if (fut instanceof FutureInternal) {
+      ((FutureInternal<T>) fut).addListener(awaiter);
     } else {
-      fut.completeExceptionally(err);
+      fut.onComplete(ar -> awaiter.accept(ar.result(), ar.cause()));
+    }
+    return park(s, awaiter, timeout(awaiter, timeoutNanos, onTimeout));
+  }
+
+  /**
+   * Give the scheduler back so the tasks queued on this context can run, the current thread is resumed after them.
+   */
+  public void yield() {
+    Scheduler s = awaitBegin();
+    Awaiter<Void> awaiter = new Awaiter<>(s.unschedule());
+    try {
+      // The resumption is queued behind the pending tasks
+      s.execute(() -> awaiter.onSuccess(null));
+    } catch (RuntimeException e) {
+      awaiter.onFailure(e);
+    }
+    park(s, awaiter, null);
+  }
+
+  /**
+   * Yield when the current thread has been running for longer than the yield interval of this context.
+   *
+   * @return whether the current thread has yielded
+   */
+  public boolean yieldIfNeeded() {
+    long interval = yieldInterval;
+    if (interval > 0L) {
+      Runner r = currentRunner();
+      if (r != null && System.nanoTime() - r.since >= interval) {
+        this.yield();
+        return true;
+      }
     }
+    return false;
+  }
+
+  /**
+   * Set the time a thread of this context runs before {@link #yieldIfNeeded} yields.
+   *
+   * @param intervalNanos the interval or {@code 0} to never yield
+   */
+  public void yieldInterval(long intervalNanos) {
+    if (intervalNanos < 0) {
+      throw new IllegalArgumentException("Yield interval must be >= 0");
+    }
+    yieldInterval = intervalNanos;
+  }
+
+  /**
+   * Park the current thread until the completion callback given to {@code register} is called, the thread is then
+   * resumed through a continuation of its scheduler. This is the building block of the synchronization primitives,
+   * the context deadline does not apply.
+   *
+   * @param register called once the thread has released the scheduler, the callback can be called from any thread
+   */
+  public <T> T suspend(Consumer<BiConsumer<T, Throwable>> register) {
+    Scheduler s = awaitBegin();
+    Awaiter<T> awaiter = new Awaiter<>(s.unschedule());
+    try {
+      register.accept(awaiter);
+    } catch (RuntimeException e) {
+      awaiter.onFailure(e);
+    }
+    return park(s, awaiter, null);
+  }
+
+  /**
+   * Await {@code required} successes among {@code futures} with a single park, once the outcome is known or the
+   * deadline of this context expires {@code cancel} is called with the index of each pending future.
+   *
+   * @param inputOrder whether the results are returned in the order of {@code futures} or in the order of completion
+   * @param cancel the cancel hook or {@code null} to leave the pending futures untouched
+   */
+  public <T> List<T> await(List<? extends Future<T>> futures, int required, boolean inputOrder, IntConsumer cancel) {
+    FanOut<T> fanOut = new FanOut<>(futures, required, inputOrder, cancel);
+    if (fanOut.isComplete()) {
+      // Fast path, the thread keeps the permit
+      return fanOut.join();
+    }
+    Scheduler s = awaitBegin();
+    Awaiter<List<T>> awaiter = new Awaiter<>(s.unschedule());
+    fanOut.listen(awaiter);
+    return park(s, awaiter, timeout(awaiter, deadlineTimeout(), fanOut.isCancellable() ? t -> fanOut.abort() : null));
+  }
+
+  public <T> T await(CompletionStage<T> fut) {
+    return awaitStage(fut, deadlineTimeout(), null);
+  }
+
+  /**
+   * Await {@code fut} at most {@code timeout}, when the timeout fires the await fails with a {@link TimeoutException},
+   * {@code fut} is not completed.
+   */
+  public <T> T await(CompletionStage<T> fut, long timeout, TimeUnit unit) {
+    return awaitStage(fut, Math.min(unit.toNanos(timeout), deadlineTimeout()), null);
+  }
+
+  /**
+   * Await {@code fut}, when the deadline of this context expires {@code fut} is completed with the
+   * {@link TimeoutException} thrown by the await, like {@link CompletableFuture#orTimeout}.
+   */
+  public <T> T await(CompletableFuture<T> fut) {
+    return awaitStage(fut, deadlineTimeout(), fut::completeExceptionally);
+  }
+
+  /**
+   * Like {@link #await(CompletableFuture)}, {@code fut} is also completed when {@code timeout} fires.
+   */
+  public <T> T await(CompletableFuture<T> fut, long timeout, TimeUnit unit) {
+    return awaitStage(fut, Math.min(unit.toNanos(timeout), deadlineTimeout()), fut::completeExceptionally);
+  }
+
+  private <T> T awaitStage(CompletionStage<T> fut, long timeoutNanos, Consumer<? super TimeoutException> onTimeout) {
+    if (fut instanceof CompletableFuture && fut.getClass() != MINIMAL_STAGE) {
+      CompletableFuture<T> cf = (CompletableFuture<T>) fut;
+      if (cf.isDone()) {
+        // Fast path, the thread keeps the permit
+        switch (cf.state()) {
+          case SUCCESS:
+            return cf.resultNow();
+          case FAILED:
+            throwAsUnchecked(cf.exceptionNow());
+            return null;
+          default:
+            // Cancelled, join throws the cancellation of the future
+            return cf.join();
+        }
+      }
+    }
+    Scheduler s = awaitBegin();
+    Awaiter<T> awaiter = new Awaiter<>(s.unschedule());
+    fut.whenComplete((value, err) -> {
+      // Dependent stages are failed with a CompletionException, unwrap it like the fast path
+      if (err instanceof CompletionException && err.getCause() != null) {
+        err = err.getCause();
+      }
+      awaiter.accept(value, err);
+    });
+    return park(s, awaiter, timeout(awaiter, timeoutNanos, onTimeout));
   }
 
   @SuppressWarnings("unchecked")
-  private static <E extends Throwable> void throwAsUnchecked(Throwable t) throws E {
+  static <E extends Throwable> void throwAsUnchecked(Throwable t) throws E {
     throw (E) t;
   }
 }
@@ -0,0 +1,68 @@
+package io.vertx.await.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Access to the {@code java.lang.VirtualThread} internals used by the watchdogs, this requires the same
+ * {@code --add-opens java.base/java.lang=ALL-UNNAMED} JVM configuration than {@link EventLoopScheduler}.
+ */
+final class VirtualThreads {
+
+  static final boolean ok;
+  static final VarHandle state;
+  static final VarHandle carrierThread;
+  static final int PINNED;
+
+  static {
+    boolean isOk = false;
+    VarHandle st = null;
+    VarHandle ct = null;
+    int pinned = -1;
+    try {
+      Class<?> vtClass = Class.forName("java.lang.VirtualThread", false, null);
+      MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(vtClass, MethodHandles.lookup());
+      st = lookup.findVarHandle(vtClass, "state", int.class);
+      ct = lookup.findVarHandle(vtClass, "carrierThread", Thread.class);
+      pinned = (int) lookup.findStaticVarHandle(vtClass, "PINNED", int.class).get();
+      isOk = true;
+    } catch (Exception | Error e) {
+      // no good
+    }
+    ok = isOk;
+    state = st;
+    carrierThread = ct;
+    PINNED = pinned;
+  }
+
+  /**
+   * The timer of the watchdogs.
+   */
+  static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, r -> {
+    Thread thread = new Thread(r, "vert.x-virtual-thread-watchdog");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  static {
+    TIMER.setRemoveOnCancelPolicy(true);
+  }
+
+  private VirtualThreads() {
+  }
+
+  /**
+   * @return whether {@code thread} is a virtual thread parked while pinned to its carrier
+   */
+  static boolean isPinned(Thread thread) {
+    return ok && thread.isVirtual() && (int) state.getVolatile(thread) == PINNED;
+  }
+
+  /**
+   * @return the carrier {@code thread} is mounted on or {@code null}
+   */
+  static Thread carrierOf(Thread thread) {
+    return ok && thread.isVirtual() ? (Thread) carrierThread.getVolatile(thread) : null;
+  }
+}
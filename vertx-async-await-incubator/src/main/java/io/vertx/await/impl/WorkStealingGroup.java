@@ -0,0 +1,47 @@
+package io.vertx.await.impl;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A group of event-loop run queues that steal stealable work from each other.
+ *
+ * When a run queue is busy, it signals the group and an idle run queue of the group is asked to steal a batch
+ * of the busy run queue stealable work.
+ */
+public class WorkStealingGroup {
+
+  private final List<EventLoopRunQueue> runQueues = new CopyOnWriteArrayList<>();
+  private final AtomicInteger next = new AtomicInteger();
+
+  void add(EventLoopRunQueue runQueue) {
+    runQueues.add(runQueue);
+  }
+
+  /**
+   * Signal that {@code busy} has stealable work pending, one idle run queue is asked to help.
+   */
+  void signal(EventLoopRunQueue busy) {
+    List<EventLoopRunQueue> list = runQueues;
+    int size = list.size();
+    int start = next.getAndIncrement();
+    for (int i = 0;i < size;i++) {
+      EventLoopRunQueue candidate = list.get(Math.floorMod(start + i, size));
+      if (candidate != busy && candidate.help(busy)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return the total number of stolen tasks by the run queues of this group
+   */
+  public long stealCount() {
+    long count = 0;
+    for (EventLoopRunQueue runQueue : runQueues) {
+      count += runQueue.stealCount();
+    }
+    return count;
+  }
+}
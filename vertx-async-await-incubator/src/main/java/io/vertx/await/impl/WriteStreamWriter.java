@@ -0,0 +1,76 @@
+package io.vertx.await.impl;
+
+import io.vertx.await.AsyncWriter;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.WriteStream;
+
+/**
+ * The {@link AsyncWriter} of a {@link WriteStream}.
+ *
+ * The writer sets the drain handler of the stream while waiting and clears it once drained, the stream drain handler
+ * must not be used by another party while the writer is in use.
+ */
+public class WriteStreamWriter<T> implements AsyncWriter<T> {
+
+  final VirtualThreadContext context;
+  final WriteStream<T> stream;
+  private volatile Throwable failure;
+  private final Handler<AsyncResult<Void>> writeHandler = ar -> {
+    if (ar.failed() && failure == null) {
+      failure = ar.cause();
+    }
+  };
+
+  /**
+   * @param context the context of the writing thread
+   * @param stream the stream to write to
+   */
+  public WriteStreamWriter(VirtualThreadContext context, WriteStream<T> stream) {
+    this.context = context;
+    this.stream = stream;
+  }
+
+  @Override
+  public void write(T item) {
+    checkFailure();
+    while (stream.writeQueueFull()) {
+      context.<Void>suspend(resume -> {
+        // Resume from the event-loop rather than from the drain handler: the continuation can run inline on the
+        // event-loop and must not write while the stream is still signalling
+        stream.drainHandler(v -> context.nettyEventLoop().execute(() -> resume.accept(null, null)));
+        // The stream might have been drained before the handler was set
+        if (!stream.writeQueueFull()) {
+          resume.accept(null, null);
+        }
+      });
+      stream.drainHandler(null);
+      checkFailure();
+    }
+    stream.write(item, writeHandler);
+  }
+
+  @Override
+  public void flush() {
+    checkFailure();
+  }
+
+  @Override
+  public void end() {
+    flush();
+    context.await(stream.end());
+    checkFailure();
+  }
+
+  @Override
+  public void close() {
+    flush();
+  }
+
+  private void checkFailure() {
+    Throwable cause = failure;
+    if (cause != null) {
+      VirtualThreadContext.throwAsUnchecked(cause);
+    }
+  }
+}
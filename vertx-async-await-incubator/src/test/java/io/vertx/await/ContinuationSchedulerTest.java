@@ -0,0 +1,220 @@
+package io.vertx.await;
+
+import io.vertx.await.impl.ContinuationScheduler;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.test.core.VertxTestBase;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ContinuationSchedulerTest extends VertxTestBase {
+
+  Async async;
+
+  @Before
+  public void setUp() throws Exception {
+    Assume.assumeTrue(ContinuationScheduler.isAvailable());
+    super.setUp();
+    async = new Async(vertx, new AsyncOptions().setUseContinuations(true));
+  }
+
+  @Test
+  public void testAwait() {
+    Promise<String> promise = Promise.promise();
+    Context eventLoop = vertx.getOrCreateContext();
+    eventLoop.runOnContext(v1 -> {
+      async.run(v2 -> {
+        Thread thread = Thread.currentThread();
+        Context context = Vertx.currentContext();
+        assertFalse(thread.isVirtual());
+        assertEquals("hello", Async.await(promise.future()));
+        assertSame(thread, Thread.currentThread());
+        assertSame(context, Vertx.currentContext());
+        testComplete();
+      });
+      // The task yielded, the event-loop runs again with its own context
+      assertSame(eventLoop, Vertx.currentContext());
+      promise.complete("hello");
+    });
+    await();
+  }
+
+  @Test
+  public void testRejectBlockingLock() {
+    vertx.runOnContext(v1 -> {
+      async.run(v2 -> {
+        ReentrantLock lock = new ReentrantLock();
+        try {
+          // Would block the event-loop
+          Async.lock(lock);
+          fail();
+        } catch (IllegalStateException expected) {
+        }
+        assertFalse(lock.isLocked());
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testAsyncLockOwnedByTask() {
+    AsyncLock lock = new AsyncLock();
+    AsyncLock.Condition condition = lock.newCondition();
+    Promise<Void> promise = Promise.promise();
+    vertx.runOnContext(v1 -> {
+      async.run(v2 -> {
+        lock.lock();
+        Async.await(promise.future());
+        assertTrue(lock.isHeldByCurrentThread());
+        lock.unlock();
+        testComplete();
+      });
+      async.run(v2 -> {
+        // Same event-loop thread, another task
+        assertFalse(lock.isHeldByCurrentThread());
+        try {
+          lock.unlock();
+          fail();
+        } catch (IllegalMonitorStateException expected) {
+        }
+        try {
+          condition.signal();
+          fail();
+        } catch (IllegalMonitorStateException expected) {
+        }
+        promise.complete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testSerializedTasks() {
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    Promise<Void> promise = Promise.promise();
+    vertx.runOnContext(v1 -> {
+      async.run(v2 -> {
+        Context context = Vertx.currentContext();
+        context.runOnContext(v3 -> {
+          events.add("task");
+          promise.complete();
+        });
+        events.add("before");
+        Async.await(promise.future());
+        events.add("after");
+        assertEquals(Arrays.asList("before", "task", "after"), events);
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testAwaitAll() {
+    vertx.runOnContext(v1 -> {
+      async.run(v2 -> {
+        Promise<Integer> p1 = Promise.promise();
+        Promise<Integer> p2 = Promise.promise();
+        vertx.setTimer(10, id -> p2.complete(2));
+        vertx.setTimer(20, id -> p1.complete(1));
+        List<Integer> results = Async.awaitAll(p1.future(), p2.future());
+        assertEquals(Arrays.asList(1, 2), results);
+        assertEquals(3, (int) Async.await(Future.succeededFuture(3)));
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testAwaitHoldingMonitor() {
+    Object lock = new Object();
+    vertx.runOnContext(v1 -> {
+      async.run(v2 -> {
+        synchronized (lock) {
+          try {
+            Async.await(Promise.promise().future());
+            fail();
+          } catch (IllegalStateException expected) {
+          }
+        }
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testLazyPromotion() {
+    Async lazy = new Async(vertx, new AsyncOptions().setLazyPromotion(true));
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    Promise<Void> promise = Promise.promise();
+    vertx.runOnContext(v1 -> {
+      lazy.run(v2 -> events.add("no-await"));
+      lazy.run(v2 -> {
+        events.add("before-await");
+        Async.await(promise.future());
+        events.add("after-await");
+        assertEquals(Arrays.asList("no-await", "before-await", "returned", "after-await"), events);
+        testComplete();
+      });
+      // Both tasks started inline, the second one is suspended
+      events.add("returned");
+      promise.complete();
+    });
+    await();
+  }
+
+  @Test
+  public void testLazyPromotionRunOnContext() {
+    Async lazy = new Async(vertx, new AsyncOptions().setLazyPromotion(true));
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    Promise<Context> promise = Promise.promise();
+    vertx.runOnContext(v1 -> {
+      lazy.run(v2 -> promise.complete(Vertx.currentContext()));
+      Context context = promise.future().result();
+      vertx.runOnContext(v3 -> {
+        // From the event-loop, the task is queued like on any context
+        context.runOnContext(v4 -> {
+          events.add("task");
+          assertEquals(Arrays.asList("returned", "task"), events);
+          testComplete();
+        });
+        events.add("returned");
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testLazyPromotionWithQueuedWork() {
+    Async lazy = new Async(vertx, new AsyncOptions().setLazyPromotion(true));
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    Promise<Context> promise = Promise.promise();
+    vertx.runOnContext(v1 -> {
+      lazy.run(v2 -> promise.complete(Vertx.currentContext()));
+      Context context = promise.future().result();
+      vertx.runOnContext(v3 -> {
+        context.runOnContext(v4 -> events.add("queued"));
+        // The run queue has pending work, the new task does not overtake it
+        lazy.run(v4 -> {
+          events.add("started");
+          assertEquals(Arrays.asList("returned", "queued", "started"), events);
+          testComplete();
+        });
+        events.add("returned");
+      });
+    });
+    await();
+  }
+}
@@ -3,7 +3,16 @@ package io.vertx.await;
 import io.vertx.await.impl.DefaultScheduler;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 public class DefaultSchedulerTest extends SchedulerTestBase {
 
@@ -13,6 +22,51 @@ public class DefaultSchedulerTest extends SchedulerTestBase {
     scheduler = new DefaultScheduler(DefaultScheduler.DEFAULT_THREAD_FACTORY);
   }
 
+  @Override
+  public void testCreateThread() throws Exception {
+    scheduler = new DefaultScheduler(DefaultScheduler.DEFAULT_THREAD_FACTORY, 0, 0);
+    super.testCreateThread();
+  }
+
+  @Test
+  public void testReuseIdleThread() throws Exception {
+    AtomicReference<Thread> thread = new AtomicReference<>();
+    scheduler.execute(() -> {
+      CountDownLatch latch = new CountDownLatch(1);
+      scheduler.execute(() -> {
+        thread.set(Thread.currentThread());
+      });
+      Consumer<Runnable> cont = scheduler.unschedule();
+      scheduler.execute(() -> cont.accept(latch::countDown));
+      try {
+        latch.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        fail(e);
+      }
+      scheduler.execute(() -> {
+        assertSame(thread.get(), Thread.currentThread());
+        testComplete();
+      });
+      scheduler.unschedule();
+    });
+    await();
+  }
+
+  @Test
+  public void testIdleThreadTerminates() throws Exception {
+    scheduler = new DefaultScheduler(DefaultScheduler.DEFAULT_THREAD_FACTORY, 1, TimeUnit.MILLISECONDS.toNanos(10));
+    AtomicReference<Thread> thread = new AtomicReference<>();
+    scheduler.execute(() -> {
+      scheduler.execute(() -> {
+        thread.set(Thread.currentThread());
+      });
+      scheduler.unschedule();
+    });
+    waitUntil(() -> thread.get() != null);
+    thread.get().join(10_000);
+    assertEquals(Thread.State.TERMINATED, thread.get().getState());
+  }
+
   @Test
   public void testSingleThreaded() {
     scheduler.execute(() -> {
@@ -27,4 +81,129 @@ public class DefaultSchedulerTest extends SchedulerTestBase {
     });
     await();
   }
+
+  @Test
+  public void testDrainBudget() {
+    scheduler = new DefaultScheduler(DefaultScheduler.DEFAULT_THREAD_FACTORY, 0, 0, 1, 0);
+    int num = 100;
+    AtomicInteger seq = new AtomicInteger();
+    scheduler.execute(() -> {
+      Thread current = Thread.currentThread();
+      for (int i = 0;i < num;i++) {
+        int val = i;
+        scheduler.execute(() -> {
+          // The runner yields between tasks but keeps the permit
+          assertSame(current, Thread.currentThread());
+          assertEquals(val, seq.getAndIncrement());
+          if (val == num - 1) {
+            testComplete();
+          }
+        });
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testLifoResumePolicy() {
+    testResumePolicy(ResumePolicy.LIFO, Arrays.asList("blocker", "resumed", "task"));
+  }
+
+  @Test
+  public void testFifoResumePolicy() {
+    testResumePolicy(ResumePolicy.FIFO, Arrays.asList("blocker", "task", "resumed"));
+  }
+
+  @Test
+  public void testWeightedResumePolicy() throws Exception {
+    scheduler = new DefaultScheduler(DefaultScheduler.DEFAULT_THREAD_FACTORY, 0, 0, Integer.MAX_VALUE, 0, ResumePolicy.WEIGHTED, 2);
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    int num = 3;
+    List<Consumer<Runnable>> conts = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch suspended = new CountDownLatch(num);
+    CountDownLatch[] resumed = new CountDownLatch[num];
+    for (int i = 0;i < num;i++) {
+      CountDownLatch latch = resumed[i] = new CountDownLatch(1);
+      scheduler.execute(() -> {
+        conts.add(scheduler.unschedule());
+        suspended.countDown();
+        try {
+          // Wait to be resumed, the thread owns the permit again when the latch is released
+          latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          fail(e);
+        }
+      });
+      long remaining = num - i - 1;
+      assertWaitUntil(() -> suspended.getCount() == remaining);
+    }
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch blocked = new CountDownLatch(1);
+    scheduler.execute(() -> {
+      events.add("blocker");
+      started.countDown();
+      try {
+        blocked.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        fail(e);
+      }
+    });
+    awaitLatch(started);
+    scheduler.execute(() -> events.add("t1"));
+    scheduler.execute(() -> {
+      events.add("t2");
+      // Two resumed threads run per queued task
+      assertEquals(Arrays.asList("blocker", "r1", "r2", "t1", "r3", "t2"), events);
+      testComplete();
+    });
+    for (int i = 0;i < num;i++) {
+      String event = "r" + (i + 1);
+      CountDownLatch latch = resumed[i];
+      conts.get(i).accept(() -> {
+        events.add(event);
+        latch.countDown();
+      });
+    }
+    blocked.countDown();
+    await();
+  }
+
+  private void testResumePolicy(ResumePolicy policy, List<String> expected) {
+    scheduler = new DefaultScheduler(DefaultScheduler.DEFAULT_THREAD_FACTORY, 0, 0, Integer.MAX_VALUE, 0, policy, 1);
+    assertEquals(policy, scheduler.resumePolicy());
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    scheduler.execute(() -> {
+      Consumer<Runnable> cont = scheduler.unschedule();
+      CountDownLatch started = new CountDownLatch(1);
+      CountDownLatch blocked = new CountDownLatch(1);
+      CountDownLatch resumed = new CountDownLatch(1);
+      scheduler.execute(() -> {
+        events.add("blocker");
+        started.countDown();
+        try {
+          blocked.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          fail(e);
+        }
+      });
+      try {
+        started.await(10, TimeUnit.SECONDS);
+        scheduler.execute(() -> events.add("task"));
+        // The blocker owns the permit, the continuation is queued according to the policy
+        cont.accept(() -> {
+          events.add("resumed");
+          resumed.countDown();
+        });
+        blocked.countDown();
+        resumed.await(10, TimeUnit.SECONDS);
+        scheduler.execute(() -> {
+          assertEquals(expected, events);
+          testComplete();
+        });
+      } catch (InterruptedException e) {
+        fail(e);
+      }
+    });
+    await();
+  }
 }
@@ -1,8 +1,42 @@
 package io.vertx.await;
 
+import io.vertx.core.Promise;
+import org.junit.Test;
+
 public class DefaultVirtualThreadContextTest extends VirtualThreadContextTestBase {
 
   public DefaultVirtualThreadContextTest() {
     super(false);
   }
+
+  @Test
+  public void testCarrierPool() {
+    Async pooled = new Async(vertx, new AsyncOptions().setCarrierPoolSize(1));
+    pooled.run(v -> {
+      // A mounted virtual thread prints its carrier
+      assertTrue(Thread.currentThread().toString().contains("vert.x-virtual-thread-carrier-0"));
+      Promise<Void> promise = Promise.promise();
+      vertx.setTimer(10, id -> promise.complete());
+      Async.await(promise.future());
+      assertTrue(Thread.currentThread().toString().contains("vert.x-virtual-thread-carrier-0"));
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testCarrierPoolPerVertx() {
+    new Async(vertx, new AsyncOptions().setCarrierPoolSize(1));
+    Async other = new Async(vertx, new AsyncOptions().setCarrierPoolSize(1));
+    other.run(v -> {
+      assertTrue(Thread.currentThread().toString().contains("vert.x-virtual-thread-carrier-0"));
+      testComplete();
+    });
+    await();
+    try {
+      new Async(vertx, new AsyncOptions().setCarrierPoolSize(2));
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
 }
@@ -3,7 +3,20 @@ package io.vertx.await;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
+import io.vertx.await.impl.EventLoopRunQueue;
 import io.vertx.await.impl.EventLoopScheduler;
+import io.vertx.await.impl.HogWatchdog;
+import io.vertx.await.impl.WorkStealingGroup;
+import io.vertx.core.Promise;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class EventLoopSchedulerTest extends SchedulerTestBase {
 
@@ -24,4 +37,189 @@ public class EventLoopSchedulerTest extends SchedulerTestBase {
     eventLoop.close();
     group.close();
   }
+
+  @Test
+  public void testRunQueueBatch() {
+    EventLoopRunQueue runQueue = EventLoopRunQueue.create(eventLoop, 1, 0L, ResumePolicy.FIFO, Integer.MAX_VALUE, null);
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    runQueue.execute(() -> events.add("c1"));
+    eventLoop.execute(() -> events.add("task"));
+    runQueue.execute(() -> {
+      events.add("c2");
+      assertEquals(Arrays.asList("c1", "task", "c2"), events);
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testRunQueueTimeBudget() {
+    EventLoopRunQueue runQueue = EventLoopRunQueue.create(eventLoop, Integer.MAX_VALUE, TimeUnit.MILLISECONDS.toNanos(1), ResumePolicy.WEIGHTED, Integer.MAX_VALUE, null);
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    runQueue.execute(() -> {
+      events.add("c1");
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException e) {
+        fail(e);
+      }
+    });
+    eventLoop.execute(() -> events.add("task"));
+    runQueue.execute(() -> {
+      events.add("c2");
+      assertEquals(Arrays.asList("c1", "task", "c2"), events);
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testRunQueueLifoResumePolicy() throws Exception {
+    testRunQueueResumePolicy(ResumePolicy.LIFO, 1, Arrays.asList("r2", "r1", "t1"));
+  }
+
+  @Test
+  public void testRunQueueFifoResumePolicy() throws Exception {
+    testRunQueueResumePolicy(ResumePolicy.FIFO, 1, Arrays.asList("r1", "t1", "r2"));
+  }
+
+  @Test
+  public void testRunQueueWeightedResumePolicy() throws Exception {
+    testRunQueueResumePolicy(ResumePolicy.WEIGHTED, 1, Arrays.asList("r1", "t1", "r2"));
+  }
+
+  private void testRunQueueResumePolicy(ResumePolicy policy, int weight, List<String> expected) throws Exception {
+    EventLoopRunQueue runQueue = EventLoopRunQueue.create(eventLoop, EventLoopRunQueue.DEFAULT_MAX_BATCH_SIZE, 0L, policy, weight, null);
+    assertEquals(policy, runQueue.resumePolicy());
+    EventLoopScheduler scheduler = new EventLoopScheduler(runQueue);
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    eventLoop.execute(() -> {
+      blocked.countDown();
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        fail(e);
+      }
+    });
+    awaitLatch(blocked);
+    // Continuations executed outside of a thread start are resumed continuations
+    runQueue.execute(() -> events.add("r1"));
+    scheduler.execute(() -> events.add("t1"));
+    runQueue.execute(() -> events.add("r2"));
+    eventLoop.execute(() -> {
+      assertEquals(expected, events);
+      testComplete();
+    });
+    release.countDown();
+    await();
+  }
+
+  @Test
+  public void testStealableUnitBatch() throws Exception {
+    EventLoopRunQueue runQueue = EventLoopRunQueue.create(eventLoop, 1, 0L, ResumePolicy.LIFO, Integer.MAX_VALUE, new WorkStealingGroup());
+    EventLoopScheduler stealable = new EventLoopScheduler(runQueue, true);
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    eventLoop.execute(() -> {
+      blocked.countDown();
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        fail(e);
+      }
+    });
+    awaitLatch(blocked);
+    stealable.execute(() -> events.add("c1"));
+    stealable.execute(() -> {
+      events.add("c2");
+      // The unit runs one continuation per drain like the run queue
+      assertEquals(Arrays.asList("c1", "task", "c2"), events);
+      testComplete();
+    });
+    eventLoop.execute(() -> events.add("task"));
+    release.countDown();
+    await();
+  }
+
+  @Test
+  public void testWatchStealableUnitContinuations() throws Exception {
+    EventLoopRunQueue runQueue = EventLoopRunQueue.create(eventLoop, EventLoopRunQueue.DEFAULT_MAX_BATCH_SIZE, 0L, ResumePolicy.LIFO, Integer.MAX_VALUE, new WorkStealingGroup());
+    HogWatchdog watchdog = new HogWatchdog(TimeUnit.MILLISECONDS.toNanos(20), 1, null);
+    try {
+      watchdog.watch(runQueue);
+      EventLoopScheduler stealable = new EventLoopScheduler(runQueue, true);
+      CountDownLatch blocked = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      eventLoop.execute(() -> {
+        blocked.countDown();
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          fail(e);
+        }
+      });
+      awaitLatch(blocked);
+      int num = 10;
+      CountDownLatch done = new CountDownLatch(num);
+      for (int i = 0;i < num;i++) {
+        stealable.execute(() -> {
+          long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(5);
+          while (System.nanoTime() < deadline) {
+            // Within the budget
+          }
+          done.countDown();
+        });
+      }
+      release.countDown();
+      awaitLatch(done);
+      // The unit runs longer than the budget but each continuation is timed on its own
+      assertEquals(0, watchdog.overruns());
+    } finally {
+      watchdog.close(Promise.promise());
+    }
+  }
+
+  @Test
+  public void testWorkStealing() throws Exception {
+    EventLoopGroup group = new NioEventLoopGroup(2);
+    try {
+      EventLoop busy = group.next();
+      EventLoop idle = group.next();
+      WorkStealingGroup stealingGroup = new WorkStealingGroup();
+      EventLoopRunQueue busyQueue = EventLoopRunQueue.create(busy, EventLoopRunQueue.DEFAULT_MAX_BATCH_SIZE, 0L, ResumePolicy.WEIGHTED, Integer.MAX_VALUE, stealingGroup);
+      EventLoopRunQueue idleQueue = EventLoopRunQueue.create(idle, EventLoopRunQueue.DEFAULT_MAX_BATCH_SIZE, 0L, ResumePolicy.WEIGHTED, Integer.MAX_VALUE, stealingGroup);
+      EventLoopScheduler stealable = new EventLoopScheduler(busyQueue, true);
+      CountDownLatch blocked = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      busy.execute(() -> {
+        blocked.countDown();
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          fail(e);
+        }
+      });
+      awaitLatch(blocked);
+      int num = 10;
+      waitFor(num);
+      AtomicInteger inTask = new AtomicInteger();
+      for (int i = 0;i < num;i++) {
+        stealable.execute(() -> {
+          assertEquals(1, inTask.incrementAndGet());
+          inTask.decrementAndGet();
+          complete();
+        });
+      }
+      await();
+      // The busy event-loop is blocked, every task is stolen, also when a unit runs several of them
+      waitUntil(() -> idleQueue.stealCount() == num);
+      assertEquals(num, stealingGroup.stealCount());
+      release.countDown();
+    } finally {
+      group.shutdownGracefully(0, 10, TimeUnit.SECONDS);
+    }
+  }
 }
@@ -1,11 +1,18 @@
 package io.vertx.await;
 
+import io.vertx.await.impl.DefaultScheduler;
+import io.vertx.await.impl.EventLoopScheduler;
+import io.vertx.await.impl.VirtualThreadContext;
+import io.vertx.core.Promise;
 import org.junit.Test;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class EventLoopVirtualThreadContextTest extends VirtualThreadContextTestBase {
 
@@ -30,4 +37,117 @@ public class EventLoopVirtualThreadContextTest extends VirtualThreadContextTestB
     await();
   }
 
+  @Test
+  public void testMigrateOnPinnedAwait() throws Exception {
+    Async detecting = new Async(vertx, new AsyncOptions()
+      .setUseVirtualEventLoopThreads(true)
+      .setPinnedAwaitThreshold(10)
+      .setMigrateOnPinnedAwait(true));
+    Object monitor = new Object();
+    AtomicReference<VirtualThreadContext> ref = new AtomicReference<>();
+    CountDownLatch done = new CountDownLatch(1);
+    detecting.run(v1 -> {
+      VirtualThreadContext context = (VirtualThreadContext) vertx.getOrCreateContext();
+      ref.set(context);
+      assertTrue(context.scheduler() instanceof EventLoopScheduler);
+      Promise<Void> promise = Promise.promise();
+      new Thread(() -> {
+        try {
+          Thread.sleep(200);
+        } catch (InterruptedException ignore) {
+        }
+        promise.complete();
+      }).start();
+      synchronized (monitor) {
+        // Blocks the event-loop until the promise is completed
+        Async.await(promise.future());
+      }
+      // The context is moved once the task has completed
+      assertTrue(context.scheduler() instanceof EventLoopScheduler);
+      done.countDown();
+    });
+    awaitLatch(done);
+    VirtualThreadContext context = ref.get();
+    waitUntil(() -> context.scheduler() instanceof DefaultScheduler);
+    assertEquals(1, detecting.pinnedAwaits());
+    context.runOnContext(v2 -> {
+      assertTrue(Thread.currentThread().isVirtual());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testNoOverlapAfterMigration() throws Exception {
+    Async detecting = new Async(vertx, new AsyncOptions()
+      .setUseVirtualEventLoopThreads(true)
+      .setPinnedAwaitThreshold(10)
+      .setMigrateOnPinnedAwait(true));
+    Object monitor = new Object();
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    AtomicReference<VirtualThreadContext> ref = new AtomicReference<>();
+    CountDownLatch started = new CountDownLatch(1);
+    Promise<Void> promise = Promise.promise();
+    int num = 10;
+    CountDownLatch done = new CountDownLatch(num + 1);
+    detecting.run(v1 -> {
+      ref.set((VirtualThreadContext) vertx.getOrCreateContext());
+      started.countDown();
+      synchronized (monitor) {
+        // Blocks the event-loop until the promise is completed
+        Async.await(promise.future());
+      }
+      busy(running, maxRunning, 100);
+      done.countDown();
+    });
+    awaitLatch(started);
+    VirtualThreadContext context = ref.get();
+    waitUntil(() -> detecting.pinnedAwaits() == 1);
+    for (int i = 0;i < num;i++) {
+      // Submitted after the migration has been requested
+      context.runOnContext(v -> {
+        busy(running, maxRunning, 10);
+        done.countDown();
+      });
+    }
+    promise.complete();
+    awaitLatch(done);
+    assertEquals(1, maxRunning.get());
+    waitUntil(() -> context.scheduler() instanceof DefaultScheduler);
+  }
+
+  private static void busy(AtomicInteger running, AtomicInteger maxRunning, long millis) {
+    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    while (System.nanoTime() < deadline) {
+      // Run without awaiting
+    }
+    running.decrementAndGet();
+  }
+
+  @Test
+  public void testHogWatchdog() throws Exception {
+    Async watched = new Async(vertx, new AsyncOptions()
+      .setUseVirtualEventLoopThreads(true)
+      .setMaxContinuationTime(20)
+      .setMigrateAfterOverruns(1));
+    AtomicReference<VirtualThreadContext> ref = new AtomicReference<>();
+    CountDownLatch done = new CountDownLatch(1);
+    watched.run(v1 -> {
+      VirtualThreadContext context = (VirtualThreadContext) vertx.getOrCreateContext();
+      ref.set(context);
+      assertTrue(context.scheduler() instanceof EventLoopScheduler);
+      long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+      while (System.nanoTime() < deadline) {
+        // Hog the event-loop
+      }
+      assertEquals(1, watched.overruns());
+      // The context is moved once the task has completed
+      assertTrue(context.scheduler() instanceof EventLoopScheduler);
+      done.countDown();
+    });
+    awaitLatch(done);
+    waitUntil(() -> ref.get().scheduler() instanceof DefaultScheduler);
+  }
 }
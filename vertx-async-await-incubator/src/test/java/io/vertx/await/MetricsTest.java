@@ -0,0 +1,71 @@
+package io.vertx.await;
+
+import io.vertx.core.Promise;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.metrics.MetricsOptions;
+import io.vertx.test.core.VertxTestBase;
+import io.vertx.test.fakemetrics.FakeMetricsFactory;
+import io.vertx.test.fakemetrics.FakePoolMetrics;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class MetricsTest extends VertxTestBase {
+
+  Async async;
+
+  @Override
+  protected VertxOptions getOptions() {
+    VertxOptions options = super.getOptions();
+    options.setMetricsOptions(new MetricsOptions().setEnabled(true).setFactory(new FakeMetricsFactory()));
+    return options;
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    super.setUp();
+    async = new Async(vertx, new AsyncOptions().setMetricsEnabled(true).setMetricsName("test-pool"));
+  }
+
+  @Test
+  public void testMetrics() {
+    AsyncMetrics metrics = async.metrics();
+    FakePoolMetrics poolMetrics = (FakePoolMetrics) FakePoolMetrics.getPoolMetrics().get("test-pool");
+    assertNotNull(poolMetrics);
+    Promise<String> promise = Promise.promise();
+    vertx.runOnContext(v -> {
+      async.run(v2 -> {
+        assertEquals("hello", Async.await(promise.future()));
+        assertEquals(0, metrics.awaitsInFlight());
+        testComplete();
+      });
+    });
+    waitUntil(() -> metrics.awaitsInFlight() == 1);
+    assertTrue(metrics.threadsStarted() > 0);
+    assertEquals(1, poolMetrics.numberOfRunningTasks());
+    promise.complete("hello");
+    await();
+    // The task completes after the handler returns
+    waitUntil(() -> metrics.tasksCompleted() == 1);
+    assertEquals(0, metrics.queueDepth());
+    assertEquals(1, Arrays.stream(metrics.queueDelayHistogram()).sum());
+    assertEquals(1, poolMetrics.numberOfCompletedTasks());
+  }
+
+  @Test
+  public void testCloseMetrics() {
+    FakePoolMetrics poolMetrics = (FakePoolMetrics) FakePoolMetrics.getPoolMetrics().get("test-pool");
+    assertFalse(poolMetrics.isClosed());
+    vertx.close().onComplete(onSuccess(v -> {
+      assertTrue(poolMetrics.isClosed());
+      testComplete();
+    }));
+    await();
+  }
+
+  @Test
+  public void testMetricsDisabled() {
+    assertNull(new Async(vertx).metrics());
+  }
+}
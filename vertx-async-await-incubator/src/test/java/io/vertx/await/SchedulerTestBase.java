@@ -7,6 +7,7 @@ import org.junit.Test;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -99,4 +100,29 @@ public abstract class SchedulerTestBase extends VertxTestBase {
     });
     await();
   }
+
+  @Test
+  public void testConcurrentExecute() throws Exception {
+    int numThreads = 4;
+    int numTasks = 10_000;
+    waitFor(numThreads * numTasks);
+    AtomicInteger inTask = new AtomicInteger();
+    Thread[] producers = new Thread[numThreads];
+    for (int i = 0;i < numThreads;i++) {
+      producers[i] = new Thread(() -> {
+        for (int j = 0;j < numTasks;j++) {
+          scheduler.execute(() -> {
+            assertEquals(1, inTask.incrementAndGet());
+            inTask.decrementAndGet();
+            complete();
+          });
+        }
+      });
+      producers[i].start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    await();
+  }
 }
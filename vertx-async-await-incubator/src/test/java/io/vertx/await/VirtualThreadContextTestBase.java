@@ -3,16 +3,33 @@ package io.vertx.await;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
 import io.vertx.await.impl.VirtualThreadContext;
 import io.vertx.core.impl.future.PromiseInternal;
 import io.vertx.test.core.VertxTestBase;
+import io.vertx.test.fakestream.FakeStream;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 public abstract class VirtualThreadContextTestBase extends VertxTestBase {
 
@@ -109,6 +126,91 @@ public abstract class VirtualThreadContextTestBase extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testAwaitCompletedFuture() {
+    Object result = new Object();
+    Exception failure = new Exception();
+    async.run(v -> {
+      Context context = vertx.getOrCreateContext();
+      AtomicBoolean ran = new AtomicBoolean();
+      context.runOnContext(v2 -> ran.set(true));
+      Thread thread = Thread.currentThread();
+      assertSame(result, Async.await(Future.succeededFuture(result)));
+      assertSame(result, Async.await(CompletableFuture.completedFuture(result)));
+      try {
+        Async.await(Future.failedFuture(failure));
+        fail();
+      } catch (Exception e) {
+        assertSame(failure, e);
+      }
+      try {
+        Async.await(CompletableFuture.failedFuture(failure));
+        fail();
+      } catch (Exception e) {
+        assertSame(failure, e);
+      }
+      CompletableFuture<Object> cancelled = new CompletableFuture<>();
+      cancelled.cancel(false);
+      CancellationException cancellation = null;
+      try {
+        cancelled.join();
+      } catch (CancellationException e) {
+        cancellation = e;
+      }
+      try {
+        Async.await(cancelled);
+        fail();
+      } catch (CancellationException e) {
+        assertSame(cancellation, e);
+      }
+      // The permit was kept, the pending task did not run
+      assertFalse(ran.get());
+      assertSame(thread, Thread.currentThread());
+      assertTrue(((ContextInternal) context).inThread());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testAwaitFailedDependentStage() {
+    Exception failure = new Exception();
+    async.run(v -> {
+      CompletableFuture<String> source = new CompletableFuture<>();
+      CompletionStage<String> pending = source.thenApply(s -> s);
+      vertx.setTimer(10, id -> source.completeExceptionally(failure));
+      try {
+        Async.await(pending);
+        fail();
+      } catch (Exception e) {
+        assertSame(failure, e);
+      }
+      // Same failure once the dependent stage is completed
+      try {
+        Async.await(pending);
+        fail();
+      } catch (Exception e) {
+        assertSame(failure, e);
+      }
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testAwaitMinimalCompletionStage() {
+    async.run(v -> {
+      CompletableFuture<String> cf = new CompletableFuture<>();
+      CompletionStage<String> stage = cf.minimalCompletionStage();
+      vertx.setTimer(10, id -> cf.complete("done"));
+      assertEquals("done", Async.await(stage));
+      // Completed minimal stage
+      assertEquals("done", Async.await(stage));
+      testComplete();
+    });
+    await();
+  }
+
   @Test
   public void testDuplicateUseSameThread() {
     int num = 1000;
@@ -168,7 +270,7 @@ public abstract class VirtualThreadContextTestBase extends VertxTestBase {
       vertx.setTimer(100, id -> {
         promise.complete("foo");
       });
-      String res = async.await(promise);
+      String res = async.await(promise.future());
       assertEquals("foo", res);
       testComplete();
     });
@@ -192,6 +294,40 @@ public abstract class VirtualThreadContextTestBase extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testInThreadFromWorkerThread() {
+    async.run(v1 -> {
+      ContextInternal context = (ContextInternal) vertx.getOrCreateContext();
+      CountDownLatch running = new CountDownLatch(1);
+      CountDownLatch checked = new CountDownLatch(1);
+      Future<Boolean> fut = context.executeBlocking(p -> {
+        // Runs inline on the worker thread
+        context.execute(null, v2 -> {
+          boolean inThread = context.inThread();
+          running.countDown();
+          try {
+            checked.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            fail(e);
+          }
+          p.complete(inThread);
+        });
+      });
+      try {
+        running.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        fail(e);
+      }
+      // The worker thread does not take over the slot of the running thread
+      assertTrue(context.inThread());
+      checked.countDown();
+      assertTrue(Async.await(fut));
+      assertTrue(context.inThread());
+      testComplete();
+    });
+    await();
+  }
+
   @Test
   public void testAcquireLock() throws Exception {
     ReentrantLock lock = new ReentrantLock();
@@ -238,4 +374,693 @@ public abstract class VirtualThreadContextTestBase extends VertxTestBase {
     });
     await();
   }
+
+  @Test
+  public void testSharedScheduler() {
+    Async shared = new Async(vertx, new AsyncOptions()
+      .setUseVirtualEventLoopThreads(useVirtualEventLoopThreads)
+      .setSharedScheduler(true));
+    ContextInternal elContext = (ContextInternal) vertx.getOrCreateContext();
+    elContext.runOnContext(v1 -> {
+      shared.run(v2 -> {
+        ContextInternal first = (ContextInternal) vertx.getOrCreateContext();
+        first.putLocal("key", "value");
+        elContext.runOnContext(v3 -> {
+          shared.run(v4 -> {
+            ContextInternal second = (ContextInternal) vertx.getOrCreateContext();
+            // Each call gets its own context on top of the shared scheduler
+            assertNotSame(first, second);
+            assertSame(((VirtualThreadContext) first).scheduler(), ((VirtualThreadContext) second).scheduler());
+            assertNull(second.getLocal("key"));
+            testComplete();
+          });
+        });
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testPinnedAwait() {
+    Async detecting = new Async(vertx, new AsyncOptions()
+      .setUseVirtualEventLoopThreads(useVirtualEventLoopThreads)
+      .setPinnedAwaitThreshold(10));
+    Object monitor = new Object();
+    detecting.run(v -> {
+      Promise<String> promise = Promise.promise();
+      new Thread(() -> {
+        try {
+          Thread.sleep(200);
+        } catch (InterruptedException ignore) {
+        }
+        promise.complete("done");
+      }).start();
+      synchronized (monitor) {
+        assertEquals("done", Async.await(promise.future()));
+      }
+      assertEquals(1, detecting.pinnedAwaits());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testAwaitTimeout() {
+    async.run(v -> {
+      Promise<String> promise = Promise.promise();
+      try {
+        Async.await(promise.future(), 100, TimeUnit.MILLISECONDS);
+        fail();
+      } catch (Exception e) {
+        assertTrue(e instanceof TimeoutException);
+      }
+      // A future is not owned by the caller, only the await is failed
+      assertFalse(promise.future().isComplete());
+      try {
+        Async.await(promise, 100, TimeUnit.MILLISECONDS);
+        fail();
+      } catch (Exception e) {
+        assertTrue(e instanceof TimeoutException);
+        // The operation owned by the caller is failed
+        assertSame(e, promise.future().cause());
+      }
+      assertEquals("done", Async.await(Future.succeededFuture("done"), 100, TimeUnit.MILLISECONDS));
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testAwaitCompletionStageTimeout() {
+    async.run(v -> {
+      CompletableFuture<String> cf = new CompletableFuture<>();
+      try {
+        Async.await(cf.minimalCompletionStage(), 100, TimeUnit.MILLISECONDS);
+        fail();
+      } catch (Exception e) {
+        assertTrue(e instanceof TimeoutException);
+      }
+      // A stage is not owned by the caller, only the await is failed
+      assertFalse(cf.isDone());
+      try {
+        Async.await(cf, 100, TimeUnit.MILLISECONDS);
+        fail();
+      } catch (Exception e) {
+        assertTrue(e instanceof TimeoutException);
+        // The operation owned by the caller is failed
+        assertSame(e, cf.exceptionNow());
+      }
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testDeadline() {
+    async.run(v -> {
+      Async.deadline(100, TimeUnit.MILLISECONDS);
+      Promise<String> promise = Promise.promise();
+      vertx.setTimer(10, id -> promise.complete("first"));
+      assertEquals("first", Async.await(promise.future()));
+      Promise<String> pending = Promise.promise();
+      try {
+        // Inherits the context deadline
+        Async.await(pending);
+        fail();
+      } catch (Exception e) {
+        assertTrue(e instanceof TimeoutException);
+        assertSame(e, pending.future().cause());
+      }
+      try {
+        Async.deadline(-1, TimeUnit.MILLISECONDS);
+        fail();
+      } catch (IllegalArgumentException expected) {
+      }
+      Async.removeDeadline();
+      Promise<String> last = Promise.promise();
+      vertx.setTimer(200, id -> last.complete("last"));
+      assertEquals("last", Async.await(last.future()));
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testAwaitAll() {
+    async.run(v -> {
+      Promise<String> p1 = Promise.promise();
+      Promise<String> p2 = Promise.promise();
+      vertx.setTimer(20, id -> p2.complete("two"));
+      vertx.setTimer(40, id -> p1.complete("one"));
+      assertEquals(Arrays.asList("one", "two", "three"), Async.awaitAll(p1.future(), p2.future(), Future.succeededFuture("three")));
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testAwaitAllFailFast() {
+    async.run(v -> {
+      Promise<String> pending = Promise.promise();
+      Promise<String> failing = Promise.promise();
+      Exception failure = new Exception();
+      vertx.setTimer(20, id -> failing.fail(failure));
+      try {
+        Async.awaitAll(pending, failing);
+        fail();
+      } catch (Exception e) {
+        assertSame(failure, e);
+      }
+      // The pending operation is cancelled
+      assertTrue(pending.future().cause() instanceof CancellationException);
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testAwaitAny() {
+    async.run(v -> {
+      Promise<String> slow = Promise.promise();
+      Promise<String> fast = Promise.promise();
+      Promise<String> failed = Promise.promise();
+      failed.fail("failure");
+      vertx.setTimer(20, id -> fast.complete("fast"));
+      assertEquals("fast", Async.awaitAny(slow, failed, fast));
+      // The loser is cancelled
+      assertTrue(slow.future().cause() instanceof CancellationException);
+      try {
+        Async.awaitAny(Future.failedFuture(new Exception("first")), Future.<String>failedFuture(new Exception("last")));
+        fail();
+      } catch (Exception e) {
+        assertEquals("last", e.getMessage());
+      }
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testAwaitFirstN() {
+    async.run(v -> {
+      Promise<String> p1 = Promise.promise();
+      Promise<String> p2 = Promise.promise();
+      Promise<String> p3 = Promise.promise();
+      vertx.setTimer(20, id -> p3.complete("three"));
+      vertx.setTimer(40, id -> p1.complete("one"));
+      assertEquals(Arrays.asList("three", "one"), Async.awaitFirstN(2, p1, p2, p3));
+      assertTrue(p2.future().cause() instanceof CancellationException);
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testAwaitAnyCancelHook() {
+    async.run(v -> {
+      Promise<String> slow = Promise.promise();
+      Promise<String> fast = Promise.promise();
+      vertx.setTimer(20, id -> fast.complete("fast"));
+      List<Integer> cancelled = Collections.synchronizedList(new ArrayList<>());
+      List<Future<String>> futures = Arrays.asList(slow.future(), Future.failedFuture("failure"), fast.future());
+      assertEquals("fast", Async.awaitAny(futures, cancelled::add));
+      // Only the pending future is cancelled, the hook does not complete it
+      assertEquals(Collections.singletonList(0), cancelled);
+      assertFalse(slow.future().isComplete());
+      // Without a hook the pending futures are left to their other consumers
+      Promise<String> shared = Promise.promise();
+      assertEquals("done", Async.awaitAny(shared.future(), Future.succeededFuture("done")));
+      assertFalse(shared.future().isComplete());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testAwaitAllDeadline() {
+    async.run(v -> {
+      Async.deadline(20, TimeUnit.MILLISECONDS);
+      Promise<String> p1 = Promise.promise();
+      Promise<String> p2 = Promise.promise();
+      p1.complete("one");
+      try {
+        Async.awaitAll(p1, p2);
+        fail();
+      } catch (Exception e) {
+        assertTrue(e instanceof TimeoutException);
+      }
+      // The deadline cancels the pending operations
+      assertTrue(p2.future().cause() instanceof CancellationException);
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testAwaitCompletedFutures() {
+    async.run(v -> {
+      AtomicBoolean queued = new AtomicBoolean();
+      vertx.runOnContext(v2 -> queued.set(true));
+      // Fast path, the queued task does not run in between
+      assertEquals(Arrays.asList("one", "two"), Async.awaitAll(Future.succeededFuture("one"), Future.succeededFuture("two")));
+      assertEquals("two", Async.awaitAny(Future.failedFuture("failure"), Future.succeededFuture("two")));
+      assertEquals(Collections.singletonList("one"), Async.awaitFirstN(1, Future.succeededFuture("one"), Future.succeededFuture("two")));
+      try {
+        Async.awaitAll(Future.succeededFuture("one"), Future.failedFuture(new Exception("failure")));
+        fail();
+      } catch (Exception e) {
+        assertEquals("failure", e.getMessage());
+      }
+      assertFalse(queued.get());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testAsyncLock() {
+    int num = 10;
+    waitFor(num);
+    AsyncLock lock = new AsyncLock();
+    AtomicBoolean owned = new AtomicBoolean();
+    for (int i = 0;i < num;i++) {
+      async.run(v -> {
+        lock.lock();
+        try {
+          assertTrue(owned.compareAndSet(false, true));
+          // Await while holding the lock
+          Promise<Void> promise = Promise.promise();
+          vertx.setTimer(5, id -> promise.complete());
+          Async.await(promise.future());
+          owned.set(false);
+        } finally {
+          lock.unlock();
+        }
+        complete();
+      });
+    }
+    await();
+  }
+
+  @Test
+  public void testAsyncCondition() {
+    AsyncLock lock = new AsyncLock();
+    AsyncLock.Condition ready = lock.newCondition();
+    AtomicBoolean flag = new AtomicBoolean();
+    async.run(v -> {
+      lock.lock();
+      try {
+        while (!flag.get()) {
+          ready.await();
+        }
+        assertTrue(lock.isHeldByCurrentThread());
+      } finally {
+        lock.unlock();
+      }
+      testComplete();
+    });
+    async.run(v -> {
+      lock.lock();
+      try {
+        flag.set(true);
+        ready.signal();
+      } finally {
+        lock.unlock();
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testAsyncSemaphore() {
+    int num = 10;
+    waitFor(num);
+    AsyncSemaphore semaphore = new AsyncSemaphore(3);
+    AtomicInteger concurrency = new AtomicInteger();
+    for (int i = 0;i < num;i++) {
+      async.run(v -> {
+        semaphore.acquire();
+        try {
+          assertTrue(concurrency.incrementAndGet() <= 3);
+          Promise<Void> promise = Promise.promise();
+          vertx.setTimer(5, id -> promise.complete());
+          Async.await(promise.future());
+          concurrency.decrementAndGet();
+        } finally {
+          semaphore.release();
+        }
+        complete();
+      });
+    }
+    await();
+  }
+
+  @Test
+  public void testAsyncCountDownLatch() {
+    int num = 3;
+    AsyncCountDownLatch latch = new AsyncCountDownLatch(num);
+    async.run(v -> {
+      latch.await();
+      assertEquals(0, latch.getCount());
+      testComplete();
+    });
+    for (int i = 0;i < num;i++) {
+      vertx.setTimer(10 * (i + 1), id -> latch.countDown());
+    }
+    await();
+  }
+
+  @Test
+  public void testReadStreamIterator() {
+    int num = 100;
+    int prefetch = 4;
+    FakeStream<Integer> stream = new FakeStream<>();
+    async.run(v -> {
+      List<Integer> items = new ArrayList<>();
+      AsyncIterator<Integer> it = Async.iterator(stream, prefetch);
+      new Thread(() -> {
+        for (int i = 0;i < num;i++) {
+          stream.write(i);
+        }
+        stream.end();
+      }).start();
+      while (it.hasNext()) {
+        assertTrue(it.buffered() <= prefetch);
+        items.add(it.next());
+      }
+      assertEquals(num, items.size());
+      for (int i = 0;i < num;i++) {
+        assertEquals(i, (int)items.get(i));
+      }
+      assertTrue(stream.pauseCount() > 0);
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testReadStreamFailure() {
+    FakeStream<Integer> stream = new FakeStream<>();
+    Exception failure = new Exception("failure");
+    async.run(v -> {
+      List<Integer> items = new ArrayList<>();
+      try (Stream<Integer> s = Async.stream(stream)) {
+        vertx.setTimer(10, id -> {
+          stream.write(0);
+          stream.write(1);
+          stream.fail(failure);
+        });
+        s.forEach(items::add);
+        fail();
+      } catch (Exception e) {
+        assertSame(failure, e);
+      }
+      assertEquals(Arrays.asList(0, 1), items);
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testBufferWriter() {
+    int num = 100;
+    FakeStream<Buffer> stream = new FakeStream<>();
+    stream.setWriteQueueMaxSize(2);
+    stream.pause();
+    List<Buffer> received = Collections.synchronizedList(new ArrayList<>());
+    stream.handler(received::add);
+    async.run(v -> {
+      AsyncWriter<Buffer> writer = Async.writer(stream, 16);
+      for (int i = 0;i < num;i++) {
+        writer.write(Buffer.buffer("abcd"));
+      }
+      writer.end();
+      assertEquals(num / 4, received.size());
+      for (Buffer buffer : received) {
+        assertEquals(16, buffer.length());
+      }
+      // The writer does not leave its drain handler on the stream
+      assertNull(stream.drainHandler());
+      testComplete();
+    });
+    // The writer waits for the stream to be drained once it has set the drain handler
+    waitUntil(() -> stream.drainHandler() != null);
+    vertx.runOnContext(v -> {
+      assertTrue(stream.writeQueueFull());
+      assertEquals(0, received.size());
+      stream.resume();
+    });
+    await();
+  }
+
+  @Test
+  public void testYield() {
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    async.run(v -> {
+      Context context = Vertx.currentContext();
+      context.runOnContext(v2 -> events.add("task"));
+      events.add("before");
+      Async.yield();
+      events.add("after");
+      assertEquals(Arrays.asList("before", "task", "after"), events);
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testYieldIfNeeded() {
+    Async yielding = new Async(vertx, new AsyncOptions()
+      .setUseVirtualEventLoopThreads(useVirtualEventLoopThreads)
+      .setYieldInterval(10));
+    yielding.run(v -> {
+      Context context = Vertx.currentContext();
+      AtomicInteger ticks = new AtomicInteger();
+      context.runOnContext(v2 -> ticks.incrementAndGet());
+      assertFalse(Async.yieldIfNeeded());
+      long end = System.currentTimeMillis() + 50;
+      int yields = 0;
+      while (System.currentTimeMillis() < end) {
+        if (Async.yieldIfNeeded()) {
+          yields++;
+        }
+      }
+      assertTrue(yields > 0);
+      assertEquals(1, ticks.get());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testRunFromNonVertxThread() {
+    int eventLoops = 0;
+    for (Object executor : ((VertxInternal) vertx).getEventLoopGroup()) {
+      eventLoops++;
+    }
+    int num = Math.min(eventLoops, 4);
+    Set<Object> used = Collections.synchronizedSet(new HashSet<>());
+    Promise<Void> release = Promise.promise();
+    AtomicInteger started = new AtomicInteger();
+    for (int i = 0;i < num;i++) {
+      // Each pending task loads its event-loop, the next task goes to another one
+      async.run(v -> {
+        ContextInternal context = (ContextInternal) Vertx.currentContext();
+        used.add(context.nettyEventLoop());
+        assertEquals(1, async.load(context.nettyEventLoop()).pendingTasks());
+        if (started.incrementAndGet() == num) {
+          release.complete();
+        }
+        Async.await(release.future());
+        if (started.decrementAndGet() == 0) {
+          assertEquals(num, used.size());
+          testComplete();
+        }
+      });
+    }
+    await();
+  }
+
+  @Test
+  public void testRunWithKey() throws Exception {
+    int num = 10;
+    Set<Context> contexts = Collections.synchronizedSet(new HashSet<>());
+    List<Integer> values = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch latch = new CountDownLatch(num);
+    for (int i = 0;i < num;i++) {
+      int value = i;
+      // Submit from distinct threads
+      vertx.runOnContext(v1 -> async.run("tenant", v2 -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        VirtualThreadContext context = (VirtualThreadContext) Vertx.currentContext();
+        assertSame(async.eventLoop("tenant"), context.nettyEventLoop());
+        contexts.add(context.root());
+        values.add(value);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2);
+        while (System.nanoTime() < deadline) {
+          // Give an overlapping task the time to start
+        }
+        running.decrementAndGet();
+        latch.countDown();
+      }));
+    }
+    awaitLatch(latch);
+    assertEquals(1, contexts.size());
+    assertEquals(num, values.size());
+    assertEquals(1, maxRunning.get());
+  }
+
+  @Test
+  public void testRunWithKeys() throws Exception {
+    int num = 64;
+    Set<Object> eventLoops = new HashSet<>();
+    for (Object executor : ((VertxInternal) vertx).getEventLoopGroup()) {
+      eventLoops.add(executor);
+    }
+    Set<Object> used = Collections.synchronizedSet(new HashSet<>());
+    Set<Context> contexts = Collections.synchronizedSet(new HashSet<>());
+    CountDownLatch latch = new CountDownLatch(num);
+    for (int i = 0;i < num;i++) {
+      String key = "key-" + i;
+      async.run(key, v -> {
+        VirtualThreadContext context = (VirtualThreadContext) Vertx.currentContext();
+        assertSame(async.eventLoop(key), context.nettyEventLoop());
+        used.add(context.nettyEventLoop());
+        contexts.add(context.root());
+        latch.countDown();
+      });
+    }
+    awaitLatch(latch);
+    assertTrue(eventLoops.containsAll(used));
+    if (eventLoops.size() > 1) {
+      // The keys are spread over the event-loops
+      assertTrue(used.size() > 1);
+    }
+    // The keys of an event-loop share its keyed context
+    assertEquals(used.size(), contexts.size());
+  }
+
+  @Test
+  public void testRunWithKeyDeadline() {
+    Promise<Void> never = Promise.promise();
+    async.run("tenant", v1 -> {
+      Async.deadline(10, TimeUnit.MILLISECONDS);
+      async.run("tenant", v2 -> {
+        // The deadline of the previous task does not apply
+        Promise<Void> promise = Promise.promise();
+        vertx.setTimer(50, id -> promise.complete());
+        Async.await(promise.future());
+        testComplete();
+      });
+      try {
+        Async.await(never.future());
+        fail();
+      } catch (Exception expected) {
+        assertTrue(expected instanceof TimeoutException);
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testRunWithNullKey() {
+    try {
+      async.run(null, v -> fail());
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      async.eventLoop(null);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test
+  public void testAsyncCache() {
+    AtomicInteger loads = new AtomicInteger();
+    AsyncCache<String, String> cache = new AsyncCache<>(2, key -> {
+      loads.incrementAndGet();
+      if (key.equals("fail")) {
+        return Future.failedFuture(new Exception("not found"));
+      }
+      Promise<String> promise = Promise.promise();
+      vertx.setTimer(10, id -> promise.complete(key.toUpperCase()));
+      return promise.future();
+    });
+    AsyncCountDownLatch latch = new AsyncCountDownLatch(2);
+    async.run("tenant", v -> {
+      // Both tasks miss while the value loads, the load is shared
+      assertEquals("A", cache.get("a"));
+      latch.countDown();
+    });
+    async.run("tenant", v -> {
+      assertEquals("A", cache.get("a"));
+      latch.countDown();
+    });
+    async.run("tenant", v -> {
+      latch.await();
+      assertEquals(1, loads.get());
+      assertEquals("A", cache.getIfPresent("a"));
+      assertEquals("B", cache.get("b"));
+      assertEquals("A", cache.get("a"));
+      assertEquals("C", cache.get("c"));
+      // b was the least recently used
+      assertEquals(2, cache.size());
+      assertNull(cache.getIfPresent("b"));
+      assertEquals(3, loads.get());
+      for (int i = 0;i < 2;i++) {
+        try {
+          cache.get("fail");
+          fail();
+        } catch (Exception expected) {
+          assertEquals("not found", expected.getMessage());
+        }
+      }
+      // Failures are not cached
+      assertEquals(5, loads.get());
+      cache.invalidate("a");
+      assertNull(cache.getIfPresent("a"));
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testAsyncCacheDuplicatedContext() {
+    AtomicInteger loads = new AtomicInteger();
+    AsyncCache<String, Integer> cache = new AsyncCache<>(16, key -> Future.succeededFuture(loads.incrementAndGet()));
+    async.run("tenant", v1 -> {
+      assertEquals(1, (int) cache.get("a"));
+      ContextInternal duplicate = ((ContextInternal) Vertx.currentContext()).duplicate();
+      duplicate.runOnContext(v2 -> {
+        assertSame(duplicate, Vertx.currentContext());
+        // The duplicate shares the entries of its root context
+        assertEquals(1, (int) cache.getIfPresent("a"));
+        assertEquals(1, (int) cache.get("a"));
+        assertEquals(1, loads.get());
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testAsyncCacheExpiration() {
+    AtomicInteger loads = new AtomicInteger();
+    AsyncCache<String, Integer> cache = new AsyncCache<>(16, 20, TimeUnit.MILLISECONDS, key -> Future.succeededFuture(loads.incrementAndGet()));
+    async.run("tenant", v -> {
+      assertEquals(1, (int) cache.get("a"));
+      assertEquals(1, (int) cache.get("a"));
+      Promise<Void> promise = Promise.promise();
+      vertx.setTimer(40, id -> promise.complete());
+      Async.await(promise.future());
+      assertNull(cache.getIfPresent("a"));
+      assertEquals(2, (int) cache.get("a"));
+      testComplete();
+    });
+    await();
+  }
 }
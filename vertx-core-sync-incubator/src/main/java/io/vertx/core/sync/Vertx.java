@@ -1,6 +1,7 @@
 package io.vertx.core.sync;
 
 import io.vertx.await.Async;
+import io.vertx.await.AsyncOptions;
 import io.vertx.core.Handler;
 import io.vertx.core.VertxOptions;
 import io.vertx.core.sync.http.HttpServer;
@@ -19,7 +20,7 @@ public class Vertx {
   }
 
   public Vertx(VertxOptions options) {
-    this(new VertxOptions(), false);
+    this(options, false);
   }
 
   public Vertx(boolean useVirtualEventLoopThreads) {
@@ -33,8 +34,22 @@ public class Vertx {
    *                                               specific JVM runtime configuration)
    */
   public Vertx(VertxOptions options, boolean useVirtualEventLoopThreads) {
+    this(options, new AsyncOptions().setUseVirtualEventLoopThreads(useVirtualEventLoopThreads));
+  }
+
+  /**
+   * Build a sync Vert.x instance
+   *
+   * @param asyncOptions the options of the virtual threads, e.g. the carrier pool dedicated to this instance
+   */
+  public Vertx(VertxOptions options, AsyncOptions asyncOptions) {
     delegate = io.vertx.core.Vertx.vertx(options);
-    async = new Async(delegate, useVirtualEventLoopThreads);
+    try {
+      async = new Async(delegate, asyncOptions);
+    } catch (RuntimeException e) {
+      delegate.close();
+      throw e;
+    }
   }
 
   public io.vertx.core.Vertx unwrap() {
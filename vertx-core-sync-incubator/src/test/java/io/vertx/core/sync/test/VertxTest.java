@@ -0,0 +1,57 @@
+package io.vertx.core.sync.test;
+
+import io.vertx.await.AsyncOptions;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.sync.Vertx;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VertxTest {
+
+  @Test
+  public void testCarrierPool() throws Exception {
+    Vertx vertx = new Vertx(new VertxOptions(), new AsyncOptions().setCarrierPoolSize(1));
+    try {
+      String thread = vertx.submit(() -> Thread.currentThread().toString()).get(10, TimeUnit.SECONDS);
+      assertTrue(thread.contains("vert.x-virtual-thread-carrier-0"), thread);
+    } finally {
+      vertx.close();
+    }
+  }
+
+  @Test
+  public void testSubmitSpreadsAcrossEventLoops() throws Exception {
+    int num = 4;
+    Vertx vertx = new Vertx(new VertxOptions().setEventLoopPoolSize(num));
+    try {
+      // Each pending task loads its event-loop, the next task goes to another one
+      CountDownLatch started = new CountDownLatch(num);
+      List<CompletableFuture<Object>> futures = new ArrayList<>();
+      for (int i = 0;i < num;i++) {
+        futures.add(vertx.submit(() -> {
+          started.countDown();
+          started.await(10, TimeUnit.SECONDS);
+          return ((ContextInternal) io.vertx.core.Vertx.currentContext()).nettyEventLoop();
+        }));
+      }
+      Set<Object> used = new HashSet<>();
+      for (CompletableFuture<Object> future : futures) {
+        used.add(future.get(10, TimeUnit.SECONDS));
+      }
+      assertEquals(num, used.size());
+    } finally {
+      vertx.close();
+    }
+  }
+}